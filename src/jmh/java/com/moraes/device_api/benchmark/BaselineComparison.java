@@ -0,0 +1,99 @@
+package com.moraes.device_api.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result against the checked-in baseline.
+ * <p>
+ * Benchmarks are matched by name and {@code @Param} values. A benchmark
+ * regresses when its score is worse than the baseline by more than the
+ * tolerance and the two confidence intervals do not overlap; any regression
+ * fails the build. Benchmarks that only exist on one side are listed, not
+ * failed, so a subset run with {@code -Djmh.includes} still passes.
+ * <p>
+ * Arguments: {@code <baseline.json> <result.json> <tolerance>}, the tolerance
+ * being a fraction such as {@code 0.25}.
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("usage: BaselineComparison <baseline.json> <result.json> <tolerance>");
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = read(mapper, new File(args[0]));
+        Map<String, JsonNode> result = read(mapper, new File(args[1]));
+        double tolerance = Double.parseDouble(args[2]);
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-60s new, not in baseline%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double delta = delta(before, after);
+            boolean regressed = delta > tolerance && !overlap(before, after);
+            System.out.printf("%-60s %12.3f -> %12.3f %s %+7.1f%%%s%n", entry.getKey(), score(before), score(after),
+                    before.path("primaryMetric").path("scoreUnit").asText(), delta * 100, regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions.add(entry.getKey());
+            }
+        }
+        baseline.keySet().stream().filter(key -> !result.containsKey(key))
+                .forEach(key -> System.out.printf("%-60s not run%n", key));
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%: %s%n", regressions.size(), tolerance * 100,
+                    regressions);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(ObjectMapper mapper, File file) throws IOException {
+        Map<String, JsonNode> benchmarks = new TreeMap<>();
+        for (JsonNode benchmark : mapper.readTree(file)) {
+            benchmarks.put(key(benchmark), benchmark);
+        }
+        return benchmarks;
+    }
+
+    private static String key(JsonNode benchmark) {
+        Map<String, String> params = new LinkedHashMap<>();
+        benchmark.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        String name = benchmark.path("benchmark").asText().replace(BaselineComparison.class.getPackageName() + ".", "");
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double score(JsonNode benchmark) {
+        return benchmark.path("primaryMetric").path("score").asDouble();
+    }
+
+    /**
+     * Relative change where a positive value is always worse: more time per
+     * operation, or fewer operations per unit of time.
+     */
+    private static double delta(JsonNode before, JsonNode after) {
+        double change = (score(after) - score(before)) / score(before);
+        return "thrpt".equals(before.path("mode").asText()) ? -change : change;
+    }
+
+    private static boolean overlap(JsonNode before, JsonNode after) {
+        JsonNode a = before.path("primaryMetric").path("scoreConfidence");
+        JsonNode b = after.path("primaryMetric").path("scoreConfidence");
+        return a.get(0).asDouble() <= b.get(1).asDouble() && b.get(0).asDouble() <= a.get(1).asDouble();
+    }
+}
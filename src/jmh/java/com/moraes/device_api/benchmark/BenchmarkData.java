@@ -0,0 +1,49 @@
+package com.moraes.device_api.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+/**
+ * Shared fixtures for the benchmarks, so every benchmark measures the same
+ * shape of data.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime CREATION_TIME = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static Device device(long id) {
+        return Device.builder()
+                .id(id)
+                .name("Device " + id)
+                .brand("Brand " + (id % 10))
+                .state(DeviceStateEnum.values()[(int) (id % DeviceStateEnum.values().length)])
+                .creationTime(CREATION_TIME.plusMinutes(id))
+                .version(id % 3)
+                .build();
+    }
+
+    static List<Device> devices(int size) {
+        final List<Device> devices = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            devices.add(device(id));
+        }
+        return devices;
+    }
+
+    static List<DeviceListDTO> dtos(int size) {
+        final List<DeviceListDTO> dtos = new ArrayList<>(size);
+        for (Device device : devices(size)) {
+            dtos.add(new DeviceListDTO(device.getId(), device.getName(), device.getBrand(),
+                    device.getState().name(), device.getCreationTime(), device.getVersion()));
+        }
+        return dtos;
+    }
+}
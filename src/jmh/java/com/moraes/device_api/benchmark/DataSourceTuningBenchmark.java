@@ -0,0 +1,169 @@
+package com.moraes.device_api.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.moraes.device_api.DeviceApiApplication;
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.model.enums.PaginationModeEnum;
+import com.moraes.device_api.api.repository.IDeviceCustomRepository;
+import com.moraes.device_api.api.repository.IDeviceRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+/**
+ * Measures findById and findByFilter against Postgres with the pgjdbc and
+ * Hikari defaults and with the tuned 'device-api.datasource.*' defaults of
+ * application.yml.
+ * <p>
+ * findByFilter cycles through every filter combination, sort property and
+ * direction, in offset and keyset mode, which is more distinct statements than
+ * the default pgjdbc statement cache holds. Requires Docker, so it is excluded
+ * from the default run and from benchmarks/baseline.json: use
+ * {@code -Djmh.includes=DataSourceTuningBenchmark -Djmh.excludes=none -Djmh.skipComparison=true}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSourceTuningBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final String[] PROPERTIES = { "id", "name", "brand", "state", "creationTime" };
+
+    /*
+     * pgjdbc and Hikari defaults, to compare against the tuned values of
+     * application.yml
+     */
+    private static final Map<String, Object> DRIVER_DEFAULTS = Map.of(
+            "device-api.datasource.rewrite-batched-inserts", false,
+            "device-api.datasource.prepare-threshold", 5,
+            "device-api.datasource.prepared-statement-cache-queries", 256,
+            "device-api.datasource.prepared-statement-cache-size-mib", 5,
+            "device-api.datasource.default-row-fetch-size", 0,
+            "device-api.datasource.leak-detection-threshold", 0);
+
+    @Param({ "DEFAULT", "TUNED" })
+    private String settings;
+
+    private PostgreSQLContainer<?> postgres;
+
+    private ConfigurableApplicationContext context;
+
+    private IDeviceRepository deviceRepository;
+
+    private IDeviceCustomRepository customRepository;
+
+    private List<DeviceFilterDTO> filters;
+
+    private long nextId;
+
+    private int nextFilter;
+
+    @Setup
+    public void setUp() throws IOException, SQLException {
+        postgres = new PostgreSQLContainer<>(PostgresContainerConfig.POSTGRES_IMAGE);
+        postgres.start();
+        final SpringApplicationBuilder builder = new SpringApplicationBuilder(DeviceApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "spring.datasource.url", postgres.getJdbcUrl() + "&currentSchema=device_api",
+                        "spring.datasource.username", postgres.getUsername(),
+                        "spring.datasource.password", postgres.getPassword()));
+        if ("DEFAULT".equals(settings)) {
+            builder.properties(DRIVER_DEFAULTS);
+        }
+        context = builder.run();
+        seed(context.getBean(DataSource.class));
+        deviceRepository = context.getBean(IDeviceRepository.class);
+        customRepository = context.getBean(IDeviceCustomRepository.class);
+        filters = filters();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Device findById() {
+        nextId = nextId % ROWS + 1;
+        return deviceRepository.findById(nextId).orElseThrow();
+    }
+
+    @Benchmark
+    public Page<DeviceListDTO> findByFilter() {
+        nextFilter = (nextFilter + 1) % filters.size();
+        return customRepository.findByFilter(filters.get(nextFilter));
+    }
+
+    private static void seed(DataSource dataSource) throws IOException, SQLException {
+        final String script = new ClassPathResource("load/seed_devices_postgresql.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace(":rows", Integer.toString(ROWS));
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static List<DeviceFilterDTO> filters() {
+        final List<DeviceFilterDTO> filters = new ArrayList<>();
+        for (int mask = 0; mask < 16; mask++) {
+            for (String property : PROPERTIES) {
+                for (Direction direction : Direction.values()) {
+                    for (PaginationModeEnum mode : PaginationModeEnum.values()) {
+                        filters.add(DeviceFilterDTO.builder()
+                                .paginate(true)
+                                .size(20)
+                                .countStrategy(CountStrategyEnum.NONE)
+                                .paginationMode(mode)
+                                .property(property)
+                                .direction(direction)
+                                .brand((mask & 1) != 0 ? "Apple" : null)
+                                .name((mask & 2) != 0 ? "Pro" : null)
+                                .state((mask & 4) != 0 ? DeviceStateEnum.AVAILABLE : null)
+                                .searchText((mask & 8) != 0 ? "2024" : null)
+                                .build());
+                    }
+                }
+            }
+        }
+        return filters;
+    }
+}
@@ -0,0 +1,56 @@
+package com.moraes.device_api.benchmark;
+
+import java.lang.reflect.Constructor;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+
+/**
+ * Measures the construction of {@link DeviceListDTO} from a result row.
+ * <p>
+ * The {@code DeviceListDTOMapping} SqlResultSetMapping uses a ConstructorResult,
+ * which Hibernate resolves to the 6-argument constructor and invokes
+ * reflectively for every row. The direct call is the lower bound.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceListDTOMappingBenchmark {
+
+    private Object[] row;
+
+    private Constructor<DeviceListDTO> constructor;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        row = new Object[] { 1L, "Device 1", "Brand 1", "AVAILABLE", BenchmarkData.CREATION_TIME, 0L };
+        constructor = DeviceListDTO.class.getConstructor(Long.class, String.class, String.class, String.class,
+                LocalDateTime.class, Long.class);
+    }
+
+    @Benchmark
+    public DeviceListDTO direct() {
+        return new DeviceListDTO((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                (LocalDateTime) row[4], (Long) row[5]);
+    }
+
+    @Benchmark
+    public DeviceListDTO constructorResult() throws ReflectiveOperationException {
+        return constructor.newInstance(row);
+    }
+}
@@ -0,0 +1,68 @@
+package com.moraes.device_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.moraes.device_api.api.mapper.IDeviceMapper;
+import com.moraes.device_api.api.mapper.IDeviceMapperImpl;
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+/**
+ * Measures the MapStruct conversions of {@link IDeviceMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMapperBenchmark {
+
+    @Param({ "20", "100" })
+    private int size;
+
+    private final IDeviceMapper mapper = new IDeviceMapperImpl();
+
+    private Device device;
+
+    private List<Device> devices;
+
+    private DeviceDTO dto;
+
+    @Setup
+    public void setUp() {
+        device = BenchmarkData.device(1);
+        devices = BenchmarkData.devices(size);
+        dto = DeviceDTO.builder().name("Device").brand("Brand").state(DeviceStateEnum.AVAILABLE).build();
+    }
+
+    @Benchmark
+    public Device toEntity() {
+        return mapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public DeviceListDTO toListDTO() {
+        return mapper.toListDTO(device);
+    }
+
+    @Benchmark
+    public List<DeviceListDTO> toListDTOs() {
+        return mapper.toListDTOs(devices);
+    }
+}
@@ -0,0 +1,68 @@
+package com.moraes.device_api.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moraes.device_api.api.model.dto.PageResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
+
+/**
+ * Measures the Jackson serialization of the {@code GET /devices} response body,
+ * with the ObjectMapper configured the way Spring Boot configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DevicePageSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private Page<DeviceListDTO> offsetPage;
+
+    private Page<DeviceListDTO> keysetPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        final List<DeviceListDTO> content = BenchmarkData.dtos(size);
+        offsetPage = new PageResultDTO<>(content, PageRequest.of(0, size), 10_000L, CountStrategyEnum.EXACT);
+        keysetPage = new PageResultDTO<>(content, PageRequest.of(0, size), true, "bmFtZXwxfERldmljZSAx");
+    }
+
+    @Benchmark
+    public byte[] offsetPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(offsetPage);
+    }
+
+    @Benchmark
+    public byte[] keysetPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(keysetPage);
+    }
+}
@@ -0,0 +1,110 @@
+package com.moraes.device_api.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.api.repository.impl.DeviceFilterSql;
+import com.moraes.device_api.api.repository.impl.DeviceSqlTemplates;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Measures the SQL construction of {@link DeviceCustomRepository}.
+ * <p>
+ * The EntityManager is a stub that only records the query, so the numbers
+ * cover string building and parameter binding, not Hibernate or the database.
+ * listByFilterTemplate binds the same filter to the cached statement of
+ * {@link DeviceSqlTemplates} for comparison with getQueryByFilter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceQueryBenchmark {
+
+    private static final String LIST_SELECT = "SELECT item.id, item.name, item.brand, item.state,"
+            + " item.creation_time AS creationTime, item.version ";
+
+    @Param({ "NONE", "BRAND", "ALL" })
+    private String filters;
+
+    private DeviceCustomRepository repository;
+
+    private EntityManager entityManager;
+
+    private DeviceFilterDTO filter;
+
+    @Setup
+    public void setUp() {
+        repository = new DeviceCustomRepository(new SimpleMeterRegistry());
+        entityManager = stubEntityManager();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        final DeviceFilterDTO.DeviceFilterDTOBuilder builder = DeviceFilterDTO.builder();
+        if (!"NONE".equals(filters)) {
+            builder.brand("Brand 1");
+        }
+        if ("ALL".equals(filters)) {
+            builder.name("Device").state(DeviceStateEnum.AVAILABLE).searchText("2025");
+        }
+        filter = builder.build();
+    }
+
+    @Benchmark
+    public StringBuilder applyFilters() {
+        final StringBuilder stringBuilder = new StringBuilder(LIST_SELECT);
+        repository.applyFilters(filter, new HashMap<>(), stringBuilder);
+        return stringBuilder;
+    }
+
+    @Benchmark
+    public Query getQueryByFilter() {
+        return repository.getQueryByFilter(filter, LIST_SELECT, " ORDER BY item.id ASC",
+                DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
+    }
+
+    @Benchmark
+    public Query listByFilterTemplate() {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final Query query = entityManager.createNativeQuery(DeviceSqlTemplates.list(mask, "id", Direction.ASC),
+                DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
+        DeviceFilterSql.bindFilters(filter, mask, query::setParameter);
+        return query;
+    }
+
+    private static EntityManager stubEntityManager() {
+        final Map<String, Object> parameters = new HashMap<>();
+        final Query query = (Query) Proxy.newProxyInstance(Query.class.getClassLoader(), new Class<?>[] { Query.class },
+                (proxy, method, args) -> {
+                    if ("setParameter".equals(method.getName())) {
+                        parameters.put(String.valueOf(args[0]), args[1]);
+                    }
+                    return proxy;
+                });
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class }, (proxy, method, args) -> query);
+    }
+}
@@ -1,10 +1,18 @@
 package com.moraes.device_api.api.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,16 +22,31 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.moraes.device_api.api.controller.interfaces.PartialChecks;
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkStateDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangesDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.service.DeviceEventBroadcaster;
 import com.moraes.device_api.api.service.interfaces.IDeviceService;
+import com.moraes.device_api.api.util.ETagUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,10 +56,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@Profile("!reactive")
 @RestController
 @RequestMapping("/api/v1/devices")
 @RequiredArgsConstructor
@@ -44,6 +70,10 @@ public class DeviceController {
 
     private final IDeviceService service;
 
+    private final DeviceEventBroadcaster eventBroadcaster;
+
+    private final ObjectMapper objectMapper;
+
     @Operation(summary = "Create a new device", description = "Inserts a new device into the system and returns its generated ID.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Device successfully created", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Long.class))),
@@ -59,9 +89,42 @@ public class DeviceController {
         return ResponseEntity.created(URI.create("/api/v1/devices/%s".formatted(id))).body(id);
     }
 
-    @Operation(summary = "Find device by ID", description = "Fetches a device by its ID and returns a summarized DTO representation.")
+    @Operation(summary = "Create devices in batch", description = "Validates every device on its own and inserts the valid ones with JDBC batches. Returns the generated IDs, aligned with the submitted devices, and the errors of the rejected ones.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceBatchResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed body", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeviceBatchResultDTO> insertBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Devices to be created", required = true, content = @Content(array = @ArraySchema(schema = @Schema(implementation = DeviceDTO.class)))) @RequestBody List<DeviceDTO> objects) {
+        log.debug("Received request to insert {} devices", objects.size());
+        final DeviceBatchResultDTO result = service.insertBatch(objects);
+        log.debug("Devices inserted: {}, rejected: {}", result.getInserted(), result.getErrors().size());
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(summary = "Create devices in batch from NDJSON", description = "Same as the JSON batch, reading one device per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceBatchResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed body", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<DeviceBatchResultDTO> insertBatchNdjson(InputStream body) throws IOException {
+        final List<DeviceDTO> objects;
+        try (MappingIterator<DeviceDTO> iterator = objectMapper.readerFor(DeviceDTO.class).readValues(body)) {
+            objects = iterator.readAll();
+        } catch (JsonProcessingException e) {
+            throw new ValidException("Malformed NDJSON body: " + e.getOriginalMessage(), HttpStatus.BAD_REQUEST);
+        }
+        return insertBatch(objects);
+    }
+
+    @Operation(summary = "Find device by ID", description = "Fetches a device by its ID and returns a summarized DTO representation. The response carries a strong ETag; If-None-Match is answered with 304.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Device found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceListDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Device not modified", content = @Content),
             @ApiResponse(responseCode = "404", description = "Device not found", content = @Content),
             @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
     })
@@ -70,7 +133,7 @@ public class DeviceController {
             @Parameter(description = "ID of the device to be fetched", required = true, example = "1") @PathVariable long id) {
 
         DeviceListDTO dto = service.getDTOById(id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(ETagUtil.of(dto)).body(dto);
     }
 
     @Operation(summary = "Update an existing device", description = "Updates the details of an existing device by its ID. If the device is in use, certain fields cannot be updated.")
@@ -79,14 +142,16 @@ public class DeviceController {
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
             @ApiResponse(responseCode = "404", description = "Device not found", content = @Content),
             @ApiResponse(responseCode = "409", description = "Update conflict due to validation rules", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Device was modified since the If-Match version", content = @Content),
             @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
     })
     @PutMapping("/{id}")
     public ResponseEntity<Void> update(
             @Parameter(description = "ID of the device to be updated", required = true, example = "1") @PathVariable long id,
-            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated device data", required = true, content = @Content(schema = @Schema(implementation = DeviceDTO.class))) @Valid @RequestBody DeviceDTO dto) {
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated device data", required = true, content = @Content(schema = @Schema(implementation = DeviceDTO.class))) @Valid @RequestBody DeviceDTO dto,
+            @Parameter(description = "ETag of the device version the update applies to") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        service.update(id, dto);
+        service.update(id, dto, ETagUtil.parseVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
@@ -96,18 +161,20 @@ public class DeviceController {
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
             @ApiResponse(responseCode = "404", description = "Device not found", content = @Content),
             @ApiResponse(responseCode = "409", description = "Update conflict due to validation rules", content = @Content),
+            @ApiResponse(responseCode = "412", description = "Device was modified since the If-Match version", content = @Content),
             @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
     })
     @PatchMapping("/{id}")
     public ResponseEntity<Void> updatePartial(
             @Parameter(description = "ID of the device to be partially updated", required = true, example = "1") @PathVariable long id,
-            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Partial device data. Only non-null fields will be updated.", required = true, content = @Content(schema = @Schema(implementation = DeviceDTO.class))) @Validated(PartialChecks.class) @RequestBody DeviceDTO dto) {
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Partial device data. Only non-null fields will be updated.", required = true, content = @Content(schema = @Schema(implementation = DeviceDTO.class))) @Validated(PartialChecks.class) @RequestBody DeviceDTO dto,
+            @Parameter(description = "ETag of the device version the update applies to") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        service.updatePartial(id, dto);
+        service.updatePartial(id, dto, ETagUtil.parseVersion(id, ifMatch));
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Get a paginated list of devices", description = "Fetches a paginated list of devices based on filter criteria. Supports pagination, sorting, and various filter fields.")
+    @Operation(summary = "Get a paginated list of devices", description = "Fetches a paginated list of devices based on filter criteria. Supports pagination, sorting, and various filter fields. With paginationMode=KEYSET, pages are read after the opaque cursor returned as nextCursor by the previous page.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of devices fetched successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceListDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid filter parameters", content = @Content),
@@ -117,35 +184,107 @@ public class DeviceController {
     public ResponseEntity<Page<DeviceListDTO>> getAll(
             @ParameterObject @Valid DeviceFilterDTO filter) {
         Page<DeviceListDTO> result = service.getAll(filter);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok().eTag(ETagUtil.of(result.getContent(), result.getTotalElements())).body(result);
+    }
+
+    @Operation(summary = "Get devices by IDs", description = "Fetches the devices with the given comma-separated IDs, ordered by ID, in a single database round trip. Unknown IDs are left out.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices fetched successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DeviceListDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<DeviceListDTO>> getByIds(
+            @Parameter(description = "IDs of the devices to be fetched", required = true, example = "1,2,3") @RequestParam long[] ids) {
+
+        List<DeviceListDTO> dtos = service.getByIds(ids);
+        return ResponseEntity.ok().eTag(ETagUtil.of(dtos, dtos.size())).body(dtos);
+    }
+
+    @Operation(summary = "Export devices as NDJSON", description = "Streams every device matching the filter criteria as newline-delimited JSON, ordered by ID. Pagination parameters are ignored.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices streamed successfully", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = DeviceListDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid filter parameters", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @ParameterObject @Valid DeviceFilterDTO filter) {
+        log.debug("Received request to export devices: {}", filter);
+        final StreamingResponseBody body = outputStream -> service.export(filter, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Get device changes", description = "Fetches the devices inserted, updated or deleted since the cursor returned as nextCursor by the previous call, ordered by update time. Deleted devices are returned as tombstones with only the ID, the time of the delete and deleted set. Without since, every device is read from the start.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes fetched successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceChangesDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<DeviceChangesDTO> getChanges(
+            @Parameter(description = "Cursor returned by the previous call") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum amount of changes to return", example = "500") @RequestParam(defaultValue = "500") int size) {
+
+        return ResponseEntity.ok(service.getChanges(since, size));
+    }
+
+    @Operation(summary = "Stream device events", description = "Opens a Server-Sent Events stream with an event for every device created, updated or deleted, sent once the change commits. Events are named created, updated or deleted. Slow clients are disconnected and should reconnect and catch up with /changes.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened", content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE, schema = @Schema(implementation = DeviceEventDTO.class))),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    // no produces condition: SseEmitter sets text/event-stream itself, so clients without that Accept header
+    // still reach the stream and its errors are written as JSON
+    @GetMapping("/events")
+    public SseEmitter events() {
+        log.debug("Received request to stream device events");
+        return eventBroadcaster.subscribe();
+    }
+
+    @Operation(summary = "Get device counts per brand and state", description = "Fetches the amount of devices of every brand and state with at least one device. Counts are refreshed in the background and may miss the writes of the last refresh interval, given by refreshedAt.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts fetched successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceStatsDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<DeviceStatsDTO> getStats() {
+        return ResponseEntity.ok(service.getStats());
     }
 
-    @Operation(summary = "Get devices by state", description = "Fetches all devices with the given state. Throws 404 if no devices are found.")
+    @Operation(summary = "Get devices by state", description = "Fetches the devices with the given state, newest first. Without size, every device is returned. Throws 404 if no devices are found.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Devices fetched successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DeviceListDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size", content = @Content),
             @ApiResponse(responseCode = "404", description = "No devices found for the given state", content = @Content),
             @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
     })
     @GetMapping("/state")
     public ResponseEntity<List<DeviceListDTO>> getByState(
-            @Parameter(description = "State to filter devices", required = true, example = "IN_USE") @RequestParam DeviceStateEnum state) {
+            @Parameter(description = "State to filter devices", required = true, example = "IN_USE") @RequestParam DeviceStateEnum state,
+            @Parameter(description = "Page to read, used with size", example = "0") @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+            @Parameter(description = "Maximum amount of devices to return", example = "100") @RequestParam(required = false) @Positive Integer size) {
 
-        List<DeviceListDTO> dtos = service.getByState(state);
-        return ResponseEntity.ok(dtos);
+        List<DeviceListDTO> dtos = service.getByState(state, toPageable(page, size));
+        return ResponseEntity.ok().eTag(ETagUtil.of(dtos, dtos.size())).body(dtos);
     }
 
-    @Operation(summary = "Get devices by brand", description = "Fetches all devices with the given brand. Throws 404 if no devices are found.")
+    @Operation(summary = "Get devices by brand", description = "Fetches the devices with the given brand, newest first. Without size, every device is returned. Throws 404 if no devices are found.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Devices fetched successfully", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DeviceListDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size", content = @Content),
             @ApiResponse(responseCode = "404", description = "No devices found for the given brand", content = @Content),
             @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
     })
     @GetMapping("/brand")
     public ResponseEntity<List<DeviceListDTO>> getByBrand(
-            @Parameter(description = "Brand to filter devices", required = true, example = "IN_USE") @RequestParam String brand) {
+            @Parameter(description = "Brand to filter devices", required = true, example = "IN_USE") @RequestParam String brand,
+            @Parameter(description = "Page to read, used with size", example = "0") @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+            @Parameter(description = "Maximum amount of devices to return", example = "100") @RequestParam(required = false) @Positive Integer size) {
 
-        List<DeviceListDTO> dtos = service.getByBrand(brand);
-        return ResponseEntity.ok(dtos);
+        List<DeviceListDTO> dtos = service.getByBrand(brand, toPageable(page, size));
+        return ResponseEntity.ok().eTag(ETagUtil.of(dtos, dtos.size())).body(dtos);
     }
 
     @Operation(summary = "Delete a device by ID", description = "Deletes a device by its ID. Devices that are in use cannot be deleted.")
@@ -162,4 +301,34 @@ public class DeviceController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Delete devices by IDs", description = "Deletes the devices with the given IDs in a single statement. Devices that are in use or do not exist are skipped and reported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices deleted", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceBulkResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "No IDs or too many IDs", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @DeleteMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeviceBulkResultDTO> deleteByIds(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "IDs of the devices to be deleted", required = true, content = @Content(array = @ArraySchema(schema = @Schema(implementation = Long.class)))) @RequestBody long[] ids) {
+
+        return ResponseEntity.ok(service.deleteByIds(ids));
+    }
+
+    @Operation(summary = "Set the state of devices by IDs", description = "Sets the state of the devices with the given IDs in a single statement. Devices that do not exist are skipped and reported.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Devices updated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = DeviceBulkResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid input data, no IDs or too many IDs", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Unexpected error", content = @Content)
+    })
+    @PatchMapping("/state")
+    public ResponseEntity<DeviceBulkResultDTO> updateStateByIds(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "IDs of the devices and their new state", required = true, content = @Content(schema = @Schema(implementation = DeviceBulkStateDTO.class))) @Valid @RequestBody DeviceBulkStateDTO dto) {
+
+        return ResponseEntity.ok(service.updateStateByIds(dto.getIds(), dto.getState()));
+    }
+
+    private static Pageable toPageable(int page, Integer size) {
+        return size == null ? Pageable.unpaged() : PageRequest.of(page, size);
+    }
 }
@@ -0,0 +1,110 @@
+package com.moraes.device_api.api.controller;
+
+import java.net.URI;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.moraes.device_api.api.controller.interfaces.PartialChecks;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.service.interfaces.IReactiveDeviceService;
+import com.moraes.device_api.api.util.ETagUtil;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux implementation of the {@code /api/v1/devices} endpoints, active with
+ * the reactive profile in place of {@link DeviceController}.
+ * <p>
+ * Lists are streamed: with {@code Accept: application/x-ndjson} every device is
+ * written as soon as it is read, paced by the client; with JSON they are
+ * written as an array.
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/v1/devices")
+@RequiredArgsConstructor
+public class ReactiveDeviceController {
+
+    private final IReactiveDeviceService service;
+
+    @PostMapping
+    public Mono<ResponseEntity<Long>> insert(@RequestBody @Valid DeviceDTO object) {
+        return service.insert(object)
+                .map(id -> ResponseEntity.created(URI.create("/api/v1/devices/%s".formatted(id))).body(id));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<DeviceListDTO>> getById(@PathVariable long id) {
+        return service.getDTOById(id)
+                .map(dto -> ResponseEntity.ok().eTag(ETagUtil.of(dto)).body(dto));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Void>> update(@PathVariable long id, @Valid @RequestBody DeviceDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> service.update(id, dto, ETagUtil.parseVersion(id, ifMatch)))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> updatePartial(@PathVariable long id,
+            @Validated(PartialChecks.class) @RequestBody DeviceDTO dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return Mono.defer(() -> service.updatePartial(id, dto, ETagUtil.parseVersion(id, ifMatch)))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<DeviceListDTO> getAll(@ParameterObject @Valid DeviceFilterDTO filter) {
+        return service.getAll(filter);
+    }
+
+    @GetMapping(value = "/state", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<DeviceListDTO> getByState(@RequestParam DeviceStateEnum state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+            @RequestParam(required = false) @Positive Integer size) {
+        return service.getByState(state, toPageable(page, size));
+    }
+
+    @GetMapping(value = "/brand", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<DeviceListDTO> getByBrand(@RequestParam String brand,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int page,
+            @RequestParam(required = false) @Positive Integer size) {
+        return service.getByBrand(brand, toPageable(page, size));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return service.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static Pageable toPageable(int page, Integer size) {
+        return size == null ? Pageable.unpaged() : PageRequest.of(page, size);
+    }
+}
@@ -6,6 +6,8 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -27,6 +29,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+@Profile("!reactive")
 @ControllerAdvice
 public class CustomizeResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
@@ -53,6 +56,17 @@ public class CustomizeResponseEntityExceptionHandler extends ResponseEntityExcep
                 .build());
     }
 
+    @ExceptionHandler(value = { OptimisticLockingFailureException.class })
+    public static final ResponseEntity<ExceptionResponse> handleOptimisticLockingExceptions(
+            OptimisticLockingFailureException ex, WebRequest request) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ExceptionResponse.builder()
+                .userMessages(Arrays.asList("Device was modified concurrently, reload it and retry."))
+                .devMessage(ExceptionUtils.getRootCauseMessage(ex))
+                .description(request.getDescription(false))
+                .status(HttpStatus.CONFLICT.value())
+                .build());
+    }
+
     @ExceptionHandler(value = { ValidException.class })
     public static final ResponseEntity<ExceptionResponse> handleValidExceptions(ValidException ex, WebRequest request) {
         return ResponseEntity.status(ex.getHttpStatus()).body(ExceptionResponse.builder()
@@ -0,0 +1,65 @@
+package com.moraes.device_api.api.controller.handler;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.exception.ValidException;
+
+/**
+ * WebFlux counterpart of {@link CustomizeResponseEntityExceptionHandler},
+ * answering with the same {@link ExceptionResponse} body.
+ */
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    private static final String JOKER = "####";
+
+    @ExceptionHandler(value = { ValidException.class })
+    public ResponseEntity<ExceptionResponse> handleValidExceptions(ValidException ex, ServerWebExchange exchange) {
+        return build(ex.getHttpStatus(), ex.getErrs(), ex, exchange);
+    }
+
+    @ExceptionHandler(value = { PatternException.class })
+    public ResponseEntity<ExceptionResponse> handlePatternExceptions(PatternException ex,
+            ServerWebExchange exchange) {
+        return build(ex.getHttpStatus(), Arrays.asList(ex.getMessage()), ex, exchange);
+    }
+
+    @ExceptionHandler(value = { WebExchangeBindException.class })
+    public ResponseEntity<ExceptionResponse> handleBindExceptions(WebExchangeBindException ex,
+            ServerWebExchange exchange) {
+        final List<String> userMessages = ex.getBindingResult().getAllErrors().stream()
+                .map(error -> {
+                    String err = error.getDefaultMessage();
+                    if (err != null && err.contains(JOKER) && error instanceof FieldError fieldError) {
+                        err = err.replace(JOKER, String.format("%s.%s", error.getObjectName(),
+                                fieldError.getField()));
+                    }
+                    return err;
+                })
+                .toList();
+        return build(HttpStatus.BAD_REQUEST, userMessages, ex, exchange);
+    }
+
+    private static ResponseEntity<ExceptionResponse> build(HttpStatus status, List<String> userMessages, Exception ex,
+            ServerWebExchange exchange) {
+        return ResponseEntity.status(status).body(ExceptionResponse.builder()
+                .userMessages(userMessages)
+                .devMessage(ExceptionUtils.getRootCauseMessage(ex))
+                .description("uri=" + exchange.getRequest().getPath().value())
+                .status(status.value())
+                .build());
+    }
+}
@@ -2,9 +2,13 @@ package com.moraes.device_api.api.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ColumnResult;
 import jakarta.persistence.ConstructorResult;
@@ -15,8 +19,10 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -28,7 +34,8 @@ import lombok.NoArgsConstructor;
                 @ColumnResult(name = "name", type = String.class),
                 @ColumnResult(name = "brand", type = String.class),
                 @ColumnResult(name = "state", type = String.class),
-                @ColumnResult(name = "creationTime", type = LocalDateTime.class)
+                @ColumnResult(name = "creationTime", type = LocalDateTime.class),
+                @ColumnResult(name = "version", type = Long.class)
         }) })
 @Data
 @NoArgsConstructor
@@ -36,10 +43,20 @@ import lombok.NoArgsConstructor;
 @Builder
 @Entity
 @Table(name = "device", schema = "device_api")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Device.CACHE_REGION)
 public class Device {
 
+    public static final String ID_SEQUENCE = "device_id_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Hibernate second-level cache regions, sized in hibernate-jcache.conf
+    public static final String CACHE_REGION = "device";
+    public static final String QUERY_CACHE_REGION = "device-queries";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, schema = "device_api", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false, length = 150)
@@ -55,6 +72,16 @@ public class Device {
     @Column(name = "creation_time", nullable = false, updatable = false)
     private LocalDateTime creationTime;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // written by the database only, so the change feed cursor follows a single clock: the column default on
+    // insert and LOCALTIMESTAMP in every update statement. Not a generated value, which would disable insert
+    // batching, so it is not read back and stays null on a device persisted in the current session
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     public void prePersist() {
         creationTime = LocalDateTime.now();
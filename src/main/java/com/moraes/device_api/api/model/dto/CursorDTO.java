@@ -0,0 +1,17 @@
+package com.moraes.device_api.api.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CursorDTO {
+
+    private String property;
+    private Long id;
+    private String value;
+}
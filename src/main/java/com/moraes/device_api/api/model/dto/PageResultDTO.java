@@ -0,0 +1,69 @@
+package com.moraes.device_api.api.model.dto;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
+
+import lombok.Getter;
+
+@JsonInclude(Include.NON_NULL)
+public class PageResultDTO<T> extends PageImpl<T> {
+
+    @Getter
+    private final String nextCursor;
+
+    @Getter
+    private final CountStrategyEnum countStrategy;
+
+    private final Boolean hasNext;
+
+    /**
+     * Creates a page with a known total.
+     * 
+     * @param content       the content of this page
+     * @param pageable      the paging information
+     * @param total         the total amount of items
+     * @param countStrategy the strategy that produced the total
+     */
+    public PageResultDTO(List<T> content, Pageable pageable, long total, CountStrategyEnum countStrategy) {
+        super(content, pageable, total);
+        this.nextCursor = null;
+        this.hasNext = null;
+        this.countStrategy = countStrategy;
+    }
+
+    /**
+     * Creates a page without a count, with Slice semantics.
+     * <p>
+     * The total is not known in this mode, so {@link #hasNext()} and
+     * {@link #isLast()} are answered from the given flag and the count strategy
+     * is {@link CountStrategyEnum#NONE}. When a cursor is given, continuation is
+     * driven by it instead of page numbers.
+     * 
+     * @param content    the content of this page
+     * @param pageable   the paging information
+     * @param hasNext    whether there is a row after the last one in content
+     * @param nextCursor the cursor to request the next page, or null if none
+     */
+    public PageResultDTO(List<T> content, Pageable pageable, boolean hasNext, String nextCursor) {
+        super(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1L : 0L));
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+        this.countStrategy = CountStrategyEnum.NONE;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext != null ? hasNext : super.hasNext();
+    }
+
+    @Override
+    public boolean isLast() {
+        return !hasNext();
+    }
+}
@@ -0,0 +1,44 @@
+package com.moraes.device_api.api.model.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(Include.NON_NULL)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class SlowQueryDTO implements Serializable {
+
+    private Instant timestamp;
+
+    private String query;
+
+    private int filters;
+
+    /**
+     * SQL template, with named parameters instead of values.
+     */
+    private String sql;
+
+    /**
+     * Type and length of each bound parameter, never its value.
+     */
+    private Map<String, String> parameters;
+
+    private double durationMs;
+
+    /**
+     * EXPLAIN (ANALYZE, BUFFERS) output, only for sampled entries.
+     */
+    private String plan;
+}
@@ -0,0 +1,20 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceBatchErrorDTO implements Serializable {
+
+    private int index;
+
+    private List<String> messages;
+}
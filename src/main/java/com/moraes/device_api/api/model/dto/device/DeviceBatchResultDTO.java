@@ -0,0 +1,26 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceBatchResultDTO implements Serializable {
+
+    private int inserted;
+
+    /**
+     * Generated IDs, in the same order as the submitted devices. Rejected devices
+     * have a null ID.
+     */
+    private List<Long> ids;
+
+    private List<DeviceBatchErrorDTO> errors;
+}
@@ -0,0 +1,23 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceBulkResultDTO implements Serializable {
+
+    private int affected;
+
+    /**
+     * Requested IDs that were not changed, sorted: devices that do not exist or,
+     * for deletes, are in use.
+     */
+    private long[] skippedIds;
+}
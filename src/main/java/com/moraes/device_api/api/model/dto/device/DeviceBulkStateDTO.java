@@ -0,0 +1,25 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceBulkStateDTO implements Serializable {
+
+    @NotEmpty
+    private long[] ids;
+
+    @NotNull
+    private DeviceStateEnum state;
+}
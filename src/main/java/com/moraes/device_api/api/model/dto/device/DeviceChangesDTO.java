@@ -0,0 +1,32 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceChangesDTO implements Serializable {
+
+    /**
+     * Inserted, updated and deleted devices, ordered by update time and ID.
+     */
+    private List<DeviceChangeDTO> changes;
+
+    /**
+     * Cursor to send as 'since' on the next call. Equal to the given one when
+     * there are no changes.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether more changes can be read right away with the next cursor.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,34 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonInclude(Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceEventDTO implements Serializable {
+
+    private DeviceEventTypeEnum type;
+
+    /**
+     * IDs of the devices changed by the same write, sorted for bulk writes.
+     */
+    private long[] ids;
+
+    /**
+     * State written by the change. Absent for deletes and for updates that keep
+     * the current state.
+     */
+    private DeviceStateEnum state;
+}
@@ -3,7 +3,9 @@ package com.moraes.device_api.api.model.dto.device;
 import org.springframework.data.domain.Sort.Direction;
 
 import com.moraes.device_api.api.model.dto.interfaces.IFilterDTO;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.model.enums.PaginationModeEnum;
 
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -41,4 +43,12 @@ public class DeviceFilterDTO implements IFilterDTO {
     private String brand;
 
     private DeviceStateEnum state;
+
+    @Builder.Default
+    private PaginationModeEnum paginationMode = PaginationModeEnum.OFFSET;
+
+    private String cursor;
+
+    @Builder.Default
+    private CountStrategyEnum countStrategy = CountStrategyEnum.EXACT;
 }
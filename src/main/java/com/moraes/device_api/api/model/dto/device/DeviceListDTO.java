@@ -27,12 +27,27 @@ public class DeviceListDTO implements Serializable {
 
     private LocalDateTime creationTime;
 
+    private Long version;
+
     // DeviceListDTOMapping
-    public DeviceListDTO(Long id, String name, String brand, String state, LocalDateTime creationTime) {
+    public DeviceListDTO(Long id, String name, String brand, String state, LocalDateTime creationTime,
+            Long version) {
         this.id = id;
         this.name = name;
         this.brand = brand;
         this.state = DeviceStateEnum.valueOf(state);
         this.creationTime = creationTime;
+        this.version = version;
+    }
+
+    // JPQL constructor expressions
+    public DeviceListDTO(Long id, String name, String brand, DeviceStateEnum state, LocalDateTime creationTime,
+            Long version) {
+        this.id = id;
+        this.name = name;
+        this.brand = brand;
+        this.state = state;
+        this.creationTime = creationTime;
+        this.version = version;
     }
 }
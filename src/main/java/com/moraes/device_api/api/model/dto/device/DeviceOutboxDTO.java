@@ -0,0 +1,27 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceOutboxDTO implements Serializable {
+
+    /**
+     * Outbox sequence. Writes of the same device are serialized by its row lock,
+     * so their events are numbered in commit order. Sinks receive each event at
+     * least once and can deduplicate by it.
+     */
+    private Long id;
+
+    private LocalDateTime createdAt;
+
+    private DeviceEventDTO event;
+}
@@ -0,0 +1,23 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStateCountDTO implements Serializable {
+
+    private String brand;
+
+    private DeviceStateEnum state;
+
+    private long devices;
+}
@@ -0,0 +1,29 @@
+package com.moraes.device_api.api.model.dto.device;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeviceStatsDTO implements Serializable {
+
+    /**
+     * Device counts of every brand and state with at least one device, ordered
+     * by brand and state.
+     */
+    private List<DeviceStateCountDTO> counts;
+
+    /**
+     * Time of the refresh the counts were computed by. Writes since then are
+     * counted by the next refresh. Null when there are no devices.
+     */
+    private LocalDateTime refreshedAt;
+}
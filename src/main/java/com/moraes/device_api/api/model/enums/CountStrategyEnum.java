@@ -0,0 +1,7 @@
+package com.moraes.device_api.api.model.enums;
+
+public enum CountStrategyEnum {
+    EXACT,
+    NONE,
+    ESTIMATED
+}
@@ -0,0 +1,7 @@
+package com.moraes.device_api.api.model.enums;
+
+public enum DeviceEventTypeEnum {
+    CREATED,
+    UPDATED,
+    DELETED
+}
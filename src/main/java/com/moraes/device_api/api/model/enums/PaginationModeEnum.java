@@ -0,0 +1,6 @@
+package com.moraes.device_api.api.model.enums;
+
+public enum PaginationModeEnum {
+    OFFSET,
+    KEYSET
+}
@@ -0,0 +1,46 @@
+package com.moraes.device_api.api.repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+
+/**
+ * Reads the change feed of the device table and maintains its tombstones.
+ * <p>
+ * Tombstones are written by {@link IDeviceCustomRepository#deleteByIdsIfNotInUse(long[])}
+ * in the statement that deletes the devices.
+ */
+public interface IDeviceChangeRepository {
+
+    /**
+     * Returns the devices inserted, updated or deleted after the given position,
+     * ordered by update time and id.
+     *
+     * Devices and tombstones are read by keyset on their (time, id) indexes and
+     * merged in a single statement, so the cost follows the amount of changes,
+     * not the size of the table. Changes newer than the settle window are left
+     * for a later call: the update time is set when a transaction writes, not
+     * when it commits, so a slower commit could otherwise land behind a cursor
+     * already returned.
+     *
+     * @param since   the update time of the last change read, or
+     *                {@link LocalDateTime#MIN} to read from the start
+     * @param sinceId the id of the last change read
+     * @param settle  the window of recent changes left out
+     * @param limit   the maximum amount of changes
+     * @return the changes, tombstones with only id and update time set
+     */
+    List<DeviceChangeDTO> findChanges(LocalDateTime since, long sinceId, Duration settle, int limit);
+
+    /**
+     * Deletes the oldest tombstones written before the retention window, on
+     * the index of their delete time.
+     *
+     * @param retention the age from which tombstones are deleted
+     * @param limit     the maximum amount of tombstones deleted by the statement
+     * @return the amount of deleted tombstones
+     */
+    int purgeTombstones(Duration retention, int limit);
+}
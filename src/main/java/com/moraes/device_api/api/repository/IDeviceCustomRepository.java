@@ -1,9 +1,14 @@
 package com.moraes.device_api.api.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.springframework.data.domain.Page;
 
+import com.moraes.device_api.api.model.Device;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
 
 public interface IDeviceCustomRepository {
 
@@ -18,9 +23,117 @@ public interface IDeviceCustomRepository {
      * If the filter's pagination is disabled, the total count of devices in the
      * list will be returned.
      *
+     * If the filter's pagination is enabled, the filter's count strategy decides
+     * how the total is produced: EXACT runs a COUNT query, NONE skips it and
+     * probes one extra row to tell whether there is a next page, and ESTIMATED
+     * reads the planner estimate, falling back to EXACT when none is available.
+     * The returned page reports the strategy that produced its total.
+     *
+     * If the filter's pagination mode is KEYSET, the page is read after the
+     * filter's cursor instead of skipping page * size rows, no count is run and
+     * the returned page carries the cursor of the next page, if any.
+     *
      * @param filter the filter to apply
      * @return a page of DeviceListDTO
      * @throws Exception if an error occurs while executing the query
      */
     Page<DeviceListDTO> findByFilter(DeviceFilterDTO filter);
+
+    /**
+     * Returns a lazy stream of DeviceListDTO given a filter, ordered by id.
+     *
+     * Pagination, sort and count fields of the filter are ignored. Rows are read
+     * from a server-side cursor in chunks of the configured fetch size, so the
+     * stream must be consumed and closed inside a transaction.
+     *
+     * @param filter the filter to apply
+     * @return a stream of DeviceListDTO
+     */
+    Stream<DeviceListDTO> streamByFilter(DeviceFilterDTO filter);
+
+    /**
+     * Inserts the given devices with JDBC batches of the configured size.
+     *
+     * The devices are written through the connection of the current
+     * transaction and are not attached to the persistence context. IDs are
+     * allocated up front from the pooled device sequence. Cached device
+     * queries of the second-level cache are invalidated when the transaction
+     * completes.
+     *
+     * @param devices the devices to insert, with state and creation time set
+     * @return the allocated IDs, in the same order as the devices
+     */
+    List<Long> insertBatch(List<Device> devices);
+
+    /**
+     * Returns the devices with the given IDs, ordered by id.
+     *
+     * The IDs are sent as a single bigint array parameter (id = ANY(?)) and every
+     * row is read in one round trip, however many IDs are given. Unknown IDs are
+     * ignored.
+     *
+     * @param ids the sorted, distinct IDs
+     * @return the devices found
+     */
+    List<DeviceListDTO> findByIds(long[] ids);
+
+    /**
+     * Deletes the devices with the given IDs that are not in use, in a single
+     * statement.
+     *
+     * Like {@link #insertBatch(List)}, the statement bypasses the persistence
+     * context. Only the deleted devices are evicted from the second-level cache.
+     * The same statement writes the tombstones of the deleted devices.
+     *
+     * @param ids the sorted, distinct IDs
+     * @return the IDs of the deleted devices, sorted
+     */
+    long[] deleteByIdsIfNotInUse(long[] ids);
+
+    /**
+     * Updates a device in a single statement, only if it is allowed.
+     *
+     * The update is applied if the device exists, is at the expected version
+     * (when given) and, while in use, keeps its name and brand. The version is
+     * incremented and the update time is set. Like
+     * {@link #deleteByIdsIfNotInUse(long[])}, only the updated device is evicted
+     * from the second-level cache.
+     *
+     * @param id              the ID of the device to update
+     * @param name            the new name
+     * @param brand           the new brand
+     * @param state           the new state
+     * @param expectedVersion the expected version, or null to accept any version
+     * @return the state of the updated device, or null if it was not updated
+     */
+    DeviceStateEnum updateIfAllowed(Long id, String name, String brand, DeviceStateEnum state, Long expectedVersion);
+
+    /**
+     * Same as {@link #updateIfAllowed}, but null values keep the current ones.
+     * A device in use therefore accepts a change of state alone, since its name
+     * and brand are kept.
+     *
+     * @param id              the ID of the device to update
+     * @param name            the new name, or null to keep it
+     * @param brand           the new brand, or null to keep it
+     * @param state           the new state, or null to keep it
+     * @param expectedVersion the expected version, or null to accept any version
+     * @return the state of the updated device, the current one when state is
+     *         null, or null if it was not updated
+     */
+    DeviceStateEnum updatePartialIfAllowed(Long id, String name, String brand, DeviceStateEnum state, Long expectedVersion);
+
+    /**
+     * Sets the state of the devices with the given IDs in a single statement,
+     * incrementing their version.
+     *
+     * Like {@link #deleteByIdsIfNotInUse(long[])}, the statement bypasses the
+     * persistence context and only evicts the updated devices from the
+     * second-level cache.
+     *
+     * @param ids   the sorted, distinct IDs
+     * @param state the new state
+     * @return the IDs of the updated devices, sorted
+     */
+    long[] updateStateByIds(long[] ids, DeviceStateEnum state);
 }
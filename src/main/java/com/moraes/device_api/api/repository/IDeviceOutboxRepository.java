@@ -0,0 +1,40 @@
+package com.moraes.device_api.api.repository;
+
+import java.util.List;
+
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+
+/**
+ * Writes the device events to the outbox and lets the relays claim and delete
+ * them.
+ */
+public interface IDeviceOutboxRepository {
+
+    /**
+     * Writes a device event to the outbox, in the transaction of the device
+     * write that produced it.
+     *
+     * @param event the device event
+     */
+    void insertOutbox(DeviceEventDTO event);
+
+    /**
+     * Locks the oldest outbox events not locked by another transaction.
+     *
+     * Rows are read with FOR UPDATE SKIP LOCKED, so relays of several instances
+     * claim disjoint batches without waiting on each other. The rows stay
+     * locked until the current transaction ends.
+     *
+     * @param limit the maximum amount of events
+     * @return the claimed events, ordered by id
+     */
+    List<DeviceOutboxDTO> claimOutbox(int limit);
+
+    /**
+     * Deletes relayed outbox events in a single statement.
+     *
+     * @param ids the IDs of the outbox events
+     */
+    void deleteOutbox(long[] ids);
+}
@@ -2,15 +2,90 @@ package com.moraes.device_api.api.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
 
+import jakarta.persistence.QueryHint;
+
 
 public interface IDeviceRepository extends JpaRepository<Device, Long> {
 
-    List<Device> findByState(DeviceStateEnum state);
+    String LIST_BY_STATE = """
+            SELECT new com.moraes.device_api.api.model.dto.device.DeviceListDTO(
+                d.id, d.name, d.brand, d.state, d.creationTime, d.version)
+            FROM Device d
+            WHERE d.state = :state
+            ORDER BY d.id DESC
+            """;
+
+    String LIST_BY_BRAND = """
+            SELECT new com.moraes.device_api.api.model.dto.device.DeviceListDTO(
+                d.id, d.name, d.brand, d.state, d.creationTime, d.version)
+            FROM Device d
+            WHERE d.brand = :brand
+            ORDER BY d.id DESC
+            """;
+
+    /**
+     * Lists a page of the devices in the given state, newest first.
+     * <p>
+     * The rows are projected straight into DeviceListDTO, so no entity is
+     * managed by the persistence context and no dirty-checking snapshot is kept.
+     * <p>
+     * With the second-level cache enabled, results are kept in the
+     * {@link Device#QUERY_CACHE_REGION} region until a write touches the device
+     * table. Every cached result holds a single page, so the region is bounded
+     * by its entry count times the page size; unpaged lists and large pages go
+     * through {@link #findAllListByState} instead.
+     *
+     * @param state    the state
+     * @param pageable the page to read
+     * @return the devices of the page
+     */
+    @Query(LIST_BY_STATE)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Device.QUERY_CACHE_REGION) })
+    List<DeviceListDTO> findListByState(@Param("state") DeviceStateEnum state, Pageable pageable);
+
+    /**
+     * Same as {@link #findListByState}, without the query cache.
+     *
+     * @param state    the state
+     * @param pageable the page to read, or {@link Pageable#unpaged()} for every
+     *                 device
+     * @return the devices in the given state
+     */
+    @Query(LIST_BY_STATE)
+    List<DeviceListDTO> findAllListByState(@Param("state") DeviceStateEnum state, Pageable pageable);
+
+    /**
+     * Same as {@link #findListByState}, for the devices of the given brand.
+     *
+     * @param brand    the brand
+     * @param pageable the page to read
+     * @return the devices of the page
+     */
+    @Query(LIST_BY_BRAND)
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Device.QUERY_CACHE_REGION) })
+    List<DeviceListDTO> findListByBrand(@Param("brand") String brand, Pageable pageable);
 
-    List<Device> findByBrand(String brand);
+    /**
+     * Same as {@link #findAllListByState}, for the devices of the given brand.
+     *
+     * @param brand    the brand
+     * @param pageable the page to read, or {@link Pageable#unpaged()} for every
+     *                 device
+     * @return the devices of the given brand
+     */
+    @Query(LIST_BY_BRAND)
+    List<DeviceListDTO> findAllListByBrand(@Param("brand") String brand, Pageable pageable);
 }
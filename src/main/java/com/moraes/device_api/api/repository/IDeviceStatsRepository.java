@@ -0,0 +1,29 @@
+package com.moraes.device_api.api.repository;
+
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
+
+/**
+ * Reads and refreshes the device_stats materialized view.
+ */
+public interface IDeviceStatsRepository {
+
+    /**
+     * Reads the device counts per brand and state of the device_stats
+     * materialized view, as of its last refresh.
+     *
+     * @return the counts, ordered by brand and state, and the refresh time
+     */
+    DeviceStatsDTO findStats();
+
+    /**
+     * Refreshes the device_stats materialized view concurrently, so it stays
+     * readable while the counts are recomputed.
+     *
+     * A transaction level advisory lock lets a single instance refresh at a
+     * time; the others skip their run instead of queuing behind it.
+     *
+     * @return true if the view was refreshed, false if another transaction is
+     *         refreshing it
+     */
+    boolean refreshStats();
+}
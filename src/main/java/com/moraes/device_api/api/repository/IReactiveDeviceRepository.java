@@ -0,0 +1,103 @@
+package com.moraes.device_api.api.repository;
+
+import org.springframework.data.domain.Pageable;
+
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the device table, used by the reactive profile.
+ * <p>
+ * Queries stream rows as they are demanded, so backpressure goes from the HTTP
+ * response down to the database cursor.
+ */
+public interface IReactiveDeviceRepository {
+
+    /**
+     * Inserts a device and returns its generated ID.
+     * 
+     * @param dto the device data
+     * @return the ID of the inserted device
+     */
+    Mono<Long> insert(DeviceDTO dto);
+
+    /**
+     * Finds a device by its ID.
+     * 
+     * @param id the ID of the device
+     * @return the device, or empty if it does not exist
+     */
+    Mono<DeviceListDTO> findById(Long id);
+
+    /**
+     * Streams the devices matching a filter, with the same filters as
+     * {@link IDeviceCustomRepository#findByFilter(DeviceFilterDTO)}.
+     * 
+     * @param filter the device filter
+     * @return the matching devices, in the order of the filter
+     */
+    Flux<DeviceListDTO> findByFilter(DeviceFilterDTO filter);
+
+    /**
+     * Streams the devices in the given state, newest first.
+     * 
+     * @param state    the state
+     * @param pageable the page to read, or Pageable.unpaged() for every device
+     * @return the devices in the given state
+     */
+    Flux<DeviceListDTO> findByState(DeviceStateEnum state, Pageable pageable);
+
+    /**
+     * Streams the devices of the given brand, newest first.
+     * 
+     * @param brand    the brand
+     * @param pageable the page to read, or Pageable.unpaged() for every device
+     * @return the devices of the given brand
+     */
+    Flux<DeviceListDTO> findByBrand(String brand, Pageable pageable);
+
+    /**
+     * Same as {@link IDeviceCustomRepository#updateIfAllowed}.
+     * 
+     * @param id              the ID of the device to update
+     * @param dto             the new values
+     * @param expectedVersion the expected version, or null to accept any version
+     * @return the state of the updated device, empty if it was not updated
+     */
+    Mono<DeviceStateEnum> updateIfAllowed(Long id, DeviceDTO dto, Long expectedVersion);
+
+    /**
+     * Same as {@link IDeviceCustomRepository#updatePartialIfAllowed}: a device in use
+     * accepts a change of state alone.
+     * 
+     * @param id              the ID of the device to update
+     * @param dto             the new values, null values keep the current ones
+     * @param expectedVersion the expected version, or null to accept any version
+     * @return the state of the updated device, empty if it was not updated
+     */
+    Mono<DeviceStateEnum> updatePartialIfAllowed(Long id, DeviceDTO dto, Long expectedVersion);
+
+    /**
+     * Deletes a device only if it is not in use, writing its tombstone in the
+     * same statement, like {@link IDeviceCustomRepository#deleteByIdsIfNotInUse}.
+     * 
+     * @param id the ID of the device to delete
+     * @return the number of deleted rows
+     */
+    Mono<Long> deleteIfNotInUse(Long id);
+
+    /**
+     * Same as {@link IDeviceOutboxRepository#insertOutbox}: to be run in the
+     * R2DBC transaction of the device write that produced the event.
+     * 
+     * @param event the device event
+     * @return completes once the event is written
+     */
+    Mono<Void> insertOutbox(DeviceEventDTO event);
+}
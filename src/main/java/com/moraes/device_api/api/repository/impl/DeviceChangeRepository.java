@@ -0,0 +1,124 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+public class DeviceChangeRepository implements IDeviceChangeRepository {
+
+    private static final String PURGE_TOMBSTONES_SQL = "DELETE FROM device_api.device_tombstone WHERE id IN"
+            + " (SELECT id FROM device_api.device_tombstone"
+            + " WHERE deleted_at < LOCALTIMESTAMP - ? * INTERVAL '1 millisecond' ORDER BY deleted_at, id LIMIT ?)";
+    private static final String CHANGES_SQL = """
+            (SELECT id, name, brand, state, creation_time, version, updated_at, false AS deleted
+            FROM device_api.device
+            WHERE (updated_at, id) > (?, ?) AND updated_at <= LOCALTIMESTAMP - ? * INTERVAL '1 millisecond'
+            ORDER BY updated_at, id LIMIT ?)
+            UNION ALL
+            (SELECT id, NULL, NULL, NULL, NULL, NULL, deleted_at, true
+            FROM device_api.device_tombstone
+            WHERE (deleted_at, id) > (?, ?) AND deleted_at <= LOCALTIMESTAMP - ? * INTERVAL '1 millisecond'
+            ORDER BY deleted_at, id LIMIT ?)
+            ORDER BY 7, 1 LIMIT ?
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DeviceChangeRepository(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public DeviceChangeRepository(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<DeviceChangeDTO> findChanges(LocalDateTime since, long sinceId, Duration settle, int limit) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final List<DeviceChangeDTO> changes = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                final List<DeviceChangeDTO> dtos = new ArrayList<>(limit);
+                try (PreparedStatement statement = connection.prepareStatement(CHANGES_SQL)) {
+                    // same bounds for devices and tombstones; pgjdbc binds LocalDateTime.MIN as -infinity
+                    for (int offset : new int[] { 0, 4 }) {
+                        statement.setObject(offset + 1, since);
+                        statement.setLong(offset + 2, sinceId);
+                        statement.setLong(offset + 3, settle.toMillis());
+                        statement.setInt(offset + 4, limit);
+                    }
+                    statement.setInt(9, limit);
+                    statement.setFetchSize(limit);
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            dtos.add(toChange(rows));
+                        }
+                    }
+                }
+                return dtos;
+            });
+            DeviceMetrics.recordQuery(meterRegistry, sample, "changes", 0, null, changes.size());
+            return changes;
+        } catch (RuntimeException e) {
+            DeviceMetrics.recordQuery(meterRegistry, sample, "changes", 0, e, -1);
+            throw e;
+        }
+    }
+
+    @Override
+    public int purgeTombstones(Duration retention, int limit) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(PURGE_TOMBSTONES_SQL)) {
+                statement.setLong(1, retention.toMillis());
+                statement.setInt(2, limit);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Reads a row of the change feed.
+     * 
+     * @param rows the result set, on the row to read
+     * @return the change, with only id and update time set for tombstones
+     * @throws SQLException if a column cannot be read
+     */
+    private static DeviceChangeDTO toChange(ResultSet rows) throws SQLException {
+        final String state = rows.getString(4);
+        return DeviceChangeDTO.builder()
+                .id(rows.getLong(1))
+                .name(rows.getString(2))
+                .brand(rows.getString(3))
+                .state(state == null ? null : DeviceStateEnum.valueOf(state))
+                .creationTime(rows.getObject(5, LocalDateTime.class))
+                .version(rows.getObject(6, Long.class))
+                .updatedAt(rows.getObject(7, LocalDateTime.class))
+                .deleted(rows.getBoolean(8))
+                .build();
+    }
+}
@@ -1,22 +1,64 @@
 package com.moraes.device_api.api.repository.impl;
 
-import java.util.HashMap;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.CursorDTO;
+import com.moraes.device_api.api.model.dto.PageResultDTO;
+import com.moraes.device_api.api.model.dto.SlowQueryDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.model.enums.PaginationModeEnum;
 import com.moraes.device_api.api.repository.IDeviceCustomRepository;
+import com.moraes.device_api.api.util.CursorUtil;
+import com.moraes.device_api.config.DeviceMetrics;
+import com.moraes.device_api.config.SlowQueryRecorder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -27,9 +69,63 @@ import lombok.extern.slf4j.Slf4j;
 @Repository
 public class DeviceCustomRepository implements IDeviceCustomRepository {
 
+    private static final String ID = "id";
+    private static final String RELTUPLES_SQL = "SELECT reltuples::bigint FROM pg_class"
+            + " WHERE oid = 'device_api.device'::regclass";
+    private static final String INSERT_SQL = "INSERT INTO device_api.device (id, name, brand, state, creation_time)"
+            + " VALUES (?, ?, ?, ?, ?)";
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval('device_api." + Device.ID_SEQUENCE + "')"
+            + " FROM generate_series(1, ?)";
+    private static final String FIND_BY_IDS_SQL = "SELECT id, name, brand, state, creation_time, version"
+            + " FROM device_api.device WHERE id = ANY(?) ORDER BY id";
+    private static final String DELETE_BY_IDS_SQL = "WITH deleted AS (DELETE FROM device_api.device"
+            + " WHERE id = ANY(?) AND state <> 'IN_USE' RETURNING id)"
+            + " INSERT INTO device_api.device_tombstone (id) SELECT id FROM deleted RETURNING id";
+    private static final String UPDATE_SQL = "UPDATE device_api.device"
+            + " SET name = ?, brand = ?, state = ?, version = version + 1, updated_at = LOCALTIMESTAMP"
+            + " WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR version = ?)"
+            + " AND (state <> 'IN_USE' OR (name = ? AND brand = ?)) RETURNING state";
+    private static final String UPDATE_PARTIAL_SQL = "UPDATE device_api.device"
+            + " SET name = COALESCE(?, name), brand = COALESCE(?, brand), state = COALESCE(?, state),"
+            + " version = version + 1, updated_at = LOCALTIMESTAMP"
+            + " WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR version = ?)"
+            + " AND (state <> 'IN_USE' OR (name = COALESCE(?, name) AND brand = COALESCE(?, brand)))"
+            + " RETURNING state";
+    private static final String UPDATE_STATE_BY_IDS_SQL = "UPDATE device_api.device"
+            + " SET state = ?, version = version + 1, updated_at = LOCALTIMESTAMP WHERE id = ANY(?) RETURNING id";
+    private static final String EXPLAIN_ANALYZE = "EXPLAIN (ANALYZE, BUFFERS) ";
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Value("${device-api.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${device-api.batch.size:500}")
+    private int batchSize;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private SlowQueryRecorder slowQueryRecorder;
+
+    @Autowired(required = false)
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Falls back to the global registry where no MeterRegistry bean exists,
+     * such as the JPA test slices.
+     */
+    @Autowired
+    public DeviceCustomRepository(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public DeviceCustomRepository(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
     public Page<DeviceListDTO> findByFilter(DeviceFilterDTO filter) {
         if (!StringUtils.hasText(filter.getProperty())) {
@@ -38,16 +134,268 @@ public class DeviceCustomRepository implements IDeviceCustomRepository {
         if(filter.getDirection() == null) {
             filter.setDirection(Direction.DESC);
         }
+        if (PaginationModeEnum.KEYSET.equals(filter.getPaginationMode())) {
+            return findByKeyset(filter);
+        }
+        getSortColumn(filter.getProperty());
         final Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(),
                 Sort.by(filter.getDirection(), filter.getProperty()));
+        final CountStrategyEnum countStrategy = filter.isPaginate() && filter.getCountStrategy() != null
+                ? filter.getCountStrategy()
+                : CountStrategyEnum.EXACT;
         try {
+            if (CountStrategyEnum.NONE.equals(countStrategy)) {
+                return findSliceByFilter(filter, pageable);
+            }
             final List<DeviceListDTO> lista = listByFilter(filter);
-            final Integer total = filter.isPaginate() ? countByFilter(filter) : lista.size();
-            return new PageImpl<>(lista, pageable, total);
+            if (!filter.isPaginate()) {
+                return new PageResultDTO<>(lista, pageable, lista.size(), CountStrategyEnum.EXACT);
+            }
+            if (CountStrategyEnum.ESTIMATED.equals(countStrategy)) {
+                final long estimate = estimateByFilter(filter);
+                if (estimate >= 0) {
+                    return new PageResultDTO<>(lista, pageable, estimate, CountStrategyEnum.ESTIMATED);
+                }
+            }
+            return new PageResultDTO<>(lista, pageable, countByFilter(filter), CountStrategyEnum.EXACT);
         } catch (Exception e) {
             log.warn("findByFilter {}", e.getMessage(), e);
         }
-        return new PageImpl<>(new LinkedList<>(), pageable, 0);
+        return new PageResultDTO<>(new LinkedList<>(), pageable, 0, countStrategy);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<DeviceListDTO> streamByFilter(DeviceFilterDTO filter) {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final Query query = createQuery(DeviceSqlTemplates.export(mask), filter, mask,
+                DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
+        if (exportFetchSize > 0) {
+            query.setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize);
+        }
+        return query.setHint(HibernateHints.HINT_READ_ONLY, true).getResultStream();
+    }
+
+    @Override
+    public List<Long> insertBatch(List<Device> devices) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final List<Long> inserted = session.doReturningWork(connection -> {
+            final List<Long> ids = allocateIds(connection, devices.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                int pending = 0;
+                for (int i = 0; i < devices.size(); i++) {
+                    final Device device = devices.get(i);
+                    statement.setLong(1, ids.get(i));
+                    statement.setString(2, device.getName());
+                    statement.setString(3, device.getBrand());
+                    statement.setString(4, device.getState().name());
+                    statement.setObject(5, device.getCreationTime());
+                    statement.addBatch();
+                    if (++pending >= batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            return ids;
+        });
+        invalidateCaches(session, new long[0]);
+        return inserted;
+    }
+
+    @Override
+    public List<DeviceListDTO> findByIds(long[] ids) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            final List<DeviceListDTO> dtos = new ArrayList<>(ids.length);
+            try (PreparedStatement statement = connection.prepareStatement(FIND_BY_IDS_SQL)) {
+                // pgjdbc binds primitive arrays as bigint[] without boxing
+                statement.setObject(1, ids);
+                statement.setFetchSize(ids.length);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        dtos.add(new DeviceListDTO(rows.getLong(1), rows.getString(2), rows.getString(3),
+                                rows.getString(4), rows.getObject(5, LocalDateTime.class), rows.getLong(6)));
+                    }
+                }
+            }
+            return dtos;
+        });
+    }
+
+    @Override
+    public long[] deleteByIdsIfNotInUse(long[] ids) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final long[] deleted = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_BY_IDS_SQL)) {
+                statement.setObject(1, ids);
+                return readIds(statement, ids.length);
+            }
+        });
+        invalidateCaches(session, deleted);
+        return deleted;
+    }
+
+    @Override
+    public DeviceStateEnum updateIfAllowed(Long id, String name, String brand, DeviceStateEnum state, Long expectedVersion) {
+        return update(UPDATE_SQL, id, name, brand, state, expectedVersion);
+    }
+
+    @Override
+    public DeviceStateEnum updatePartialIfAllowed(Long id, String name, String brand, DeviceStateEnum state,
+            Long expectedVersion) {
+        return update(UPDATE_PARTIAL_SQL, id, name, brand, state, expectedVersion);
+    }
+
+    @Override
+    public long[] updateStateByIds(long[] ids, DeviceStateEnum state) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final long[] updated = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_STATE_BY_IDS_SQL)) {
+                statement.setString(1, state.name());
+                statement.setObject(2, ids);
+                return readIds(statement, ids.length);
+            }
+        });
+        invalidateCaches(session, updated);
+        return updated;
+    }
+
+    /**
+     * Runs a statement returning IDs and reads them, sorted, in one round trip.
+     * 
+     * @param statement the statement, with its parameters set
+     * @param maxIds    the maximum amount of IDs returned
+     * @return the returned IDs, sorted
+     * @throws SQLException if the statement fails
+     */
+    private static long[] readIds(PreparedStatement statement, int maxIds) throws SQLException {
+        final long[] ids = new long[maxIds];
+        int size = 0;
+        statement.setFetchSize(maxIds);
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                ids[size++] = rows.getLong(1);
+            }
+        }
+        final long[] result = Arrays.copyOf(ids, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Runs a single device update statement; both statements bind the same
+     * parameters in the same order.
+     * 
+     * @param sql             the update statement
+     * @param id              the ID of the device to update
+     * @param name            the new name
+     * @param brand           the new brand
+     * @param state           the new state
+     * @param expectedVersion the expected version, or null to accept any version
+     * @return the state of the updated device, or null if it was not updated
+     */
+    private DeviceStateEnum update(String sql, Long id, String name, String brand, DeviceStateEnum state,
+            Long expectedVersion) {
+        final SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        final DeviceStateEnum updated = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setString(1, name);
+                statement.setString(2, brand);
+                statement.setString(3, state == null ? null : state.name());
+                statement.setLong(4, id);
+                statement.setObject(5, expectedVersion, Types.BIGINT);
+                statement.setObject(6, expectedVersion, Types.BIGINT);
+                statement.setString(7, name);
+                statement.setString(8, brand);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? DeviceStateEnum.valueOf(resultSet.getString(1)) : null;
+                }
+            }
+        });
+        if (updated != null) {
+            invalidateCaches(session, new long[] { id });
+        }
+        return updated;
+    }
+
+    /**
+     * Invalidates the second-level cache of devices after a JDBC write.
+     * <p>
+     * JDBC writes bypass Hibernate, so the cleanup Hibernate does for its own
+     * writes is registered here: the cached device queries are invalidated and
+     * only the written devices are evicted from the device region, right away
+     * and again when the transaction completes. A bulk JPQL statement would
+     * evict the whole region instead.
+     * 
+     * @param session the session of the current transaction
+     * @param ids     the IDs of the updated or deleted devices, empty for inserts
+     */
+    private static void invalidateCaches(SessionImplementor session, long[] ids) {
+        final SessionFactoryImplementor factory = session.getFactory();
+        final Serializable[] querySpaces = factory.getMappingMetamodel().getEntityDescriptor(Device.class)
+                .getQuerySpaces();
+        final String[] spaces = Arrays.copyOf(querySpaces, querySpaces.length, String[].class);
+        final boolean queryCache = factory.getSessionFactoryOptions().isQueryCacheEnabled();
+        for (long id : ids) {
+            factory.getCache().evictEntityData(Device.class, id);
+        }
+        if (queryCache) {
+            factory.getCache().getTimestampsCache().preInvalidate(spaces, session);
+        }
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            for (long id : ids) {
+                factory.getCache().evictEntityData(Device.class, id);
+            }
+            if (queryCache) {
+                factory.getCache().getTimestampsCache().invalidate(spaces, completedSession);
+            }
+        });
+    }
+
+    /**
+     * Allocates IDs from the device sequence the same way Hibernate's pooled
+     * optimizer does: every nextval reserves the block of
+     * {@link Device#ID_ALLOCATION_SIZE} IDs ending at the returned value, so a
+     * single round trip reserves IDs for the whole batch.
+     * 
+     * @param connection the connection of the current transaction
+     * @param amount     the amount of IDs to allocate
+     * @return the allocated IDs
+     * @throws SQLException if the sequence cannot be read
+     */
+    private static List<Long> allocateIds(Connection connection, int amount) throws SQLException {
+        final List<Long> ids = new ArrayList<>(amount);
+        try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_IDS_SQL)) {
+            statement.setInt(1, (amount + Device.ID_ALLOCATION_SIZE - 1) / Device.ID_ALLOCATION_SIZE);
+            try (ResultSet blocks = statement.executeQuery()) {
+                while (blocks.next()) {
+                    final long hi = blocks.getLong(1);
+                    for (long id = hi - Device.ID_ALLOCATION_SIZE + 1; id <= hi && ids.size() < amount; id++) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Returns a page of devices without counting them.
+     * <p>
+     * Fetches one row more than the page size to tell whether there is a next
+     * page, so no COUNT query is needed.
+     * 
+     * @param filter   the device filter
+     * @param pageable the paging information
+     * @return the page of devices, with Slice semantics
+     */
+    public Page<DeviceListDTO> findSliceByFilter(DeviceFilterDTO filter, Pageable pageable) {
+        final List<DeviceListDTO> rows = listByFilter(filter, filter.getSize() + 1);
+        final boolean hasNext = rows.size() > filter.getSize();
+        return new PageResultDTO<>(hasNext ? rows.subList(0, filter.getSize()) : rows, pageable, hasNext, null);
     }
 
     /**
@@ -59,32 +407,169 @@ public class DeviceCustomRepository implements IDeviceCustomRepository {
      * @param filter the device filter
      * @return the list of devices or null if an exception occurs
      */
-    @SuppressWarnings("unchecked")
     public List<DeviceListDTO> listByFilter(DeviceFilterDTO filter) {
+        return listByFilter(filter, filter.getSize());
+    }
+
+    /**
+     * Same as {@link #listByFilter(DeviceFilterDTO)}, but reading up to the given
+     * amount of rows when the filter is paginated.
+     * 
+     * @param filter     the device filter
+     * @param maxResults the maximum amount of rows to read
+     * @return the list of devices or null if an exception occurs
+     */
+    @SuppressWarnings("unchecked")
+    public List<DeviceListDTO> listByFilter(DeviceFilterDTO filter, int maxResults) {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            StringBuilder sql = new StringBuilder("SELECT");
-            sql.append(" item.id,");
-            sql.append(" item.name,");
-            sql.append(" item.brand,");
-            sql.append(" item.state,");
-            sql.append(" item.creation_time AS creationTime");
-            sql.append(" ");
-            Query query = getQueryByFilter(filter, sql.toString(),
-                    String.format(" ORDER BY item.%s %s", filter.getProperty(),
-                            filter.getDirection().name()),
-                    DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
+            final String sql = DeviceSqlTemplates.list(mask, filter.getProperty(), filter.getDirection());
+            final Query query = createQuery(sql, filter, mask, DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
             if (filter.isPaginate()) {
-                return query.setMaxResults(filter.getSize())
-                        .setFirstResult(filter.getSize() * filter.getPage()).getResultList();
+                query.setMaxResults(maxResults).setFirstResult(filter.getSize() * filter.getPage());
             }
-            return query.getResultList();
+            final List<DeviceListDTO> rows = query.getResultList();
+            recordSlowQuery(recordQuery(sample, "list", mask, null, rows.size()), "list", sql, query, filter, mask);
+            return rows;
 
         } catch (Exception e) {
             log.warn("listByFilter {}", e.getMessage(), e);
+            recordQuery(sample, "list", mask, e, -1);
         }
         return null;
     }
 
+    /**
+     * This method is used to list devices positioned after a keyset cursor.
+     * <p>
+     * Instead of skipping rows with an offset, the last seen sort value and id
+     * are used as a row comparison, so Postgres can seek straight to the first
+     * row of the page through an index on (sort column, id). The id is used as a
+     * tie-breaker to keep the order total.
+     * <p>
+     * Fetches one row more than the page size so the caller can tell whether
+     * there is a next page.
+     * 
+     * @param filter      the device filter
+     * @param cursor      the decoded cursor, or null for the first page
+     * @param cursorValue the typed sort value of the cursor, or null for the
+     *                    first page
+     * @return the list of devices, with at most size + 1 rows
+     */
+    @SuppressWarnings("unchecked")
+    public List<DeviceListDTO> listByKeyset(DeviceFilterDTO filter, CursorDTO cursor, Object cursorValue) {
+        final boolean sortById = ID.equals(getSortColumn(filter.getProperty()));
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final String sql = DeviceSqlTemplates.keyset(mask, filter.getProperty(), filter.getDirection(),
+                cursor != null);
+        final Query query = createQuery(sql, filter, mask, DeviceListDTO.DEVICE_LIST_DTO_MAPPING);
+        if (cursor != null) {
+            query.setParameter("cursorId", cursor.getId());
+            if (!sortById) {
+                query.setParameter("cursorValue", cursorValue);
+            }
+        }
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final List<DeviceListDTO> rows = query.setMaxResults(filter.getSize() + 1).getResultList();
+            recordSlowQuery(recordQuery(sample, "keyset", mask, null, rows.size()), "keyset", sql, query, filter,
+                    mask);
+            return rows;
+        } catch (RuntimeException e) {
+            recordQuery(sample, "keyset", mask, e, -1);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a page of devices using keyset pagination.
+     * <p>
+     * The cursor of the filter, when present, must have been produced by a
+     * previous call with the same sort property. The returned page carries the
+     * cursor of its last row when there are more rows to read.
+     * 
+     * @param filter the device filter
+     * @return the page of devices
+     * @throws ValidException with BAD_REQUEST if the sort property or the cursor
+     *                        are invalid
+     */
+    public Page<DeviceListDTO> findByKeyset(DeviceFilterDTO filter) {
+        final String column = getSortColumn(filter.getProperty());
+        final CursorDTO cursor = StringUtils.hasText(filter.getCursor()) ? CursorUtil.decode(filter.getCursor())
+                : null;
+        final Object cursorValue = cursor != null ? getCursorValue(filter.getProperty(), column, cursor) : null;
+        final Sort sort = ID.equals(column) ? Sort.by(filter.getDirection(), ID)
+                : Sort.by(filter.getDirection(), filter.getProperty(), ID);
+        final Pageable pageable = PageRequest.of(0, filter.getSize(), sort);
+        try {
+            final List<DeviceListDTO> rows = listByKeyset(filter, cursor, cursorValue);
+            final boolean hasNext = rows.size() > filter.getSize();
+            final List<DeviceListDTO> content = hasNext ? rows.subList(0, filter.getSize()) : rows;
+            final String nextCursor = hasNext
+                    ? CursorUtil.encode(toCursor(filter.getProperty(), content.get(content.size() - 1)))
+                    : null;
+            return new PageResultDTO<>(content, pageable, hasNext, nextCursor);
+        } catch (Exception e) {
+            log.warn("findByKeyset {}", e.getMessage(), e);
+        }
+        return new PageResultDTO<>(new LinkedList<>(), pageable, false, null);
+    }
+
+    /**
+     * Returns the column for a sort property, rejecting anything that is not a
+     * known device column.
+     * 
+     * @param property the sort property
+     * @return the column name
+     * @throws ValidException with BAD_REQUEST if the property is unknown
+     */
+    public String getSortColumn(String property) {
+        return DeviceFilterSql.getSortColumn(property);
+    }
+
+    /**
+     * Builds the cursor pointing at the given row for the given sort property.
+     * 
+     * @param property the sort property
+     * @param dto      the last row of a page
+     * @return the cursor
+     */
+    public CursorDTO toCursor(String property, DeviceListDTO dto) {
+        final String value = switch (getSortColumn(property)) {
+            case "name" -> dto.getName();
+            case "brand" -> dto.getBrand();
+            case "state" -> dto.getState().name();
+            case "creation_time" -> dto.getCreationTime().toString();
+            default -> null;
+        };
+        return CursorDTO.builder().property(property).id(dto.getId()).value(value).build();
+    }
+
+    /**
+     * Converts the sort value of a cursor to the type of its column.
+     * 
+     * @param property the sort property requested by the filter
+     * @param column   the column of the sort property
+     * @param cursor   the decoded cursor
+     * @return the typed sort value
+     * @throws ValidException with BAD_REQUEST if the cursor was created for another
+     *                        sort property or its value cannot be parsed
+     */
+    public Object getCursorValue(String property, String column, CursorDTO cursor) {
+        if (!property.equals(cursor.getProperty())) {
+            throw new ValidException("Cursor does not match the sort property.", HttpStatus.BAD_REQUEST);
+        }
+        if (!"creation_time".equals(column)) {
+            return cursor.getValue();
+        }
+        try {
+            return LocalDateTime.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new ValidException("Invalid cursor.", HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * This method is used to count devices according to the given filter.
      * It constructs a query based on the filter properties and then executes it.
@@ -95,25 +580,207 @@ public class DeviceCustomRepository implements IDeviceCustomRepository {
      * @return the count of devices or 0 if an exception occurs
      */
     public Integer countByFilter(DeviceFilterDTO filter) {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            return Integer.valueOf(getQueryByFilter(filter, "SELECT COUNT(item.id) ", "", null)
-                    .getSingleResult().toString());
+            final String sql = DeviceSqlTemplates.count(mask);
+            final Query query = createQuery(sql, filter, mask, null);
+            final Integer count = Integer.valueOf(query.getSingleResult().toString());
+            recordSlowQuery(recordQuery(sample, "count", mask, null, -1), "count", sql, query, filter, mask);
+            return count;
         } catch (Exception e) {
             log.warn("countByFilter {}", e.getMessage(), e);
+            recordQuery(sample, "count", mask, e, -1);
         }
         return 0;
     }
 
+    /**
+     * This method is used to estimate the count of devices according to the given
+     * filter without scanning them.
+     * <p>
+     * Without filters, the planner statistics of the table (pg_class.reltuples)
+     * are returned. With filters, the row estimate of the EXPLAIN plan of the
+     * filtered query is returned.
+     * <p>
+     * The statement runs on the JDBC connection behind a savepoint. On Postgres a
+     * failed statement aborts the whole transaction, and through JPA it would
+     * also mark it rollback-only; rolling back to the savepoint keeps the
+     * caller's transaction usable, so it can still fall back to the exact count.
+     * If no estimate is available or an exception occurs, it logs the error and
+     * returns -1.
+     * 
+     * @param filter the device filter
+     * @return the estimated count of devices or -1 if unavailable
+     */
+    public long estimateByFilter(DeviceFilterDTO filter) {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final List<Object> values = new ArrayList<>();
+            DeviceFilterSql.bindFilters(filter, mask, (name, value) -> values.add(value));
+            final String jdbcSql = mask == 0 ? RELTUPLES_SQL : DeviceSqlTemplates.jdbcEstimate(mask);
+            final long estimate = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> estimate(connection, jdbcSql, values, mask == 0));
+            final String sql = mask == 0 ? RELTUPLES_SQL : DeviceSqlTemplates.estimate(mask);
+            recordSlowQuery(recordQuery(sample, "estimate", mask, null, -1), "estimate", sql, null, filter, mask);
+            return estimate;
+        } catch (Exception e) {
+            log.warn("estimateByFilter {}", e.getMessage(), e);
+            recordQuery(sample, "estimate", mask, e, -1);
+        }
+        return -1;
+    }
+
+    /**
+     * Runs an estimate statement behind a savepoint, rolled back if the statement
+     * fails. Outside a transaction there is nothing to protect, so no savepoint
+     * is taken.
+     * 
+     * @param connection the connection of the current transaction
+     * @param sql        the statement, with positional parameters
+     * @param values     the values of the parameters, in order
+     * @param reltuples  whether the statement reads pg_class.reltuples instead of
+     *                   a plan
+     * @return the estimated count of devices or -1 if the plan has no estimate
+     * @throws SQLException if the statement fails
+     */
+    private static long estimate(Connection connection, String sql, List<Object> values, boolean reltuples)
+            throws SQLException {
+        final Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < values.size(); i++) {
+                statement.setObject(i + 1, values.get(i));
+            }
+            long estimate = -1;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    if (reltuples) {
+                        estimate = resultSet.getLong(1);
+                    } else {
+                        final Matcher matcher = PLAN_ROWS.matcher(resultSet.getString(1));
+                        estimate = matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+                    }
+                }
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return estimate;
+        } catch (SQLException e) {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            }
+            throw e;
+        }
+    }
+
+    private long recordQuery(Timer.Sample sample, String queryKind, int mask, Throwable failure, int rows) {
+        return DeviceMetrics.recordQuery(meterRegistry, sample, queryKind, mask, failure, rows);
+    }
+
+    /**
+     * Keeps a filter query in the slow query recorder when it took longer than
+     * its threshold.
+     * <p>
+     * The SQL template and the type and length of the bound parameters are kept,
+     * never the filter values. For sampled queries, the same statement, with the
+     * same parameters, limit and offset, is run again with EXPLAIN (ANALYZE,
+     * BUFFERS) and its plan is kept too. The plan is taken by the recorder on
+     * its own thread, in a new read-only transaction: the request thread never
+     * waits for a second connection, and a failing EXPLAIN cannot abort the
+     * caller's transaction.
+     * 
+     * @param durationNanos the duration of the query
+     * @param queryKind     list, keyset, count or estimate
+     * @param sql           the SQL template that was run
+     * @param query         the query that was run, or null if it cannot be
+     *                      explained; its bound parameters are described
+     * @param filter        the device filter, describing the parameters when
+     *                      there is no query
+     * @param mask          the filter mask
+     */
+    private void recordSlowQuery(long durationNanos, String queryKind, String sql, Query query,
+            DeviceFilterDTO filter, int mask) {
+        if (slowQueryRecorder == null || !slowQueryRecorder.isSlow(durationNanos)) {
+            return;
+        }
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        if (query == null) {
+            DeviceFilterSql.bindFilters(filter, mask, (name, value) -> parameters.put(name, describe(value)));
+        } else {
+            query.getParameters().forEach(parameter -> parameters.put(parameter.getName(),
+                    describe(query.getParameterValue(parameter.getName()))));
+        }
+        log.debug("Slow {} query with filters {} took {} ms", queryKind, mask, durationNanos / 1_000_000);
+        final SlowQueryDTO entry = SlowQueryDTO.builder()
+                .timestamp(Instant.now())
+                .query(queryKind)
+                .filters(mask)
+                .sql(sql)
+                .parameters(parameters)
+                .durationMs(durationNanos / 1_000_000.0)
+                .build();
+        if (query == null || transactionManager == null || !slowQueryRecorder.shouldExplain()) {
+            slowQueryRecorder.record(entry);
+            return;
+        }
+        // The query belongs to the request's session, so its values are copied
+        // before the plan is taken on another thread
+        final Map<String, Object> values = new LinkedHashMap<>();
+        query.getParameters().forEach(parameter -> values.put(parameter.getName(),
+                query.getParameterValue(parameter.getName())));
+        final int maxResults = query.getMaxResults();
+        final int firstResult = query.getFirstResult();
+        // On Postgres a failed statement aborts the whole transaction, so the
+        // EXPLAIN must not share the caller's one
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(true);
+        slowQueryRecorder.recordWithPlan(entry, () -> transaction.execute(status -> {
+            final Query explain = entityManager.createNativeQuery(EXPLAIN_ANALYZE + sql);
+            values.forEach(explain::setParameter);
+            if (maxResults != Integer.MAX_VALUE) {
+                explain.setMaxResults(maxResults).setFirstResult(firstResult);
+            }
+            return ((List<?>) explain.getResultList()).stream().map(Object::toString)
+                    .collect(Collectors.joining("\n"));
+        }));
+    }
+
+    /**
+     * Describes a bound parameter without its value.
+     * 
+     * @param value the parameter value
+     * @return the type of the value, with the length of strings
+     */
+    private static String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        return value instanceof String text ? "String(" + text.length() + ")" : value.getClass().getSimpleName();
+    }
+
+    /**
+     * Checks whether any of the filters applied by applyFilters() is set.
+     * 
+     * @param filter the device filter
+     * @return true if at least one filter is set
+     */
+    public boolean hasActiveFilters(DeviceFilterDTO filter) {
+        return DeviceFilterSql.filterMask(filter) != 0;
+    }
+
     /**
      * This method is used to build a query based on the given filter.
      * It takes four parameters: the filter, the initial SQL string, a complement
      * string and a mapping name.
-     * It first appends the FROM clause to the SQL string and then appends the WHERE
-     * clause.
-     * It then applies the filters to the query by calling applyFilters() and
-     * appending the complement string.
-     * Finally, it creates a native query with the given mapping name and sets the
-     * parameters from the map.
+     * It appends the FROM and WHERE clauses of the filter mask and the complement
+     * string to the SQL string, then creates the native query and binds the
+     * filter parameters.
+     * <p>
+     * The list, count and estimate queries of this repository use the statements
+     * of {@link DeviceSqlTemplates} instead, so they do not build SQL per request.
      * If an exception occurs, it logs the error and throws the exception.
      * 
      * @param filter      the device filter
@@ -124,22 +791,25 @@ public class DeviceCustomRepository implements IDeviceCustomRepository {
      * @return the query object
      */
     public Query getQueryByFilter(DeviceFilterDTO filter, String sql, String complement, String mappingName) {
+        final int mask = DeviceFilterSql.filterMask(filter);
+        return createQuery(sql + DeviceFilterSql.whereClause(mask) + " " + complement, filter, mask, mappingName);
+    }
+
+    /**
+     * Creates a native query from a complete statement and binds the parameters
+     * of the filter mask.
+     * 
+     * @param sql         the statement, with the conditions of the mask
+     * @param filter      the device filter
+     * @param mask        the filter mask
+     * @param mappingName the result set mapping, or null for scalar results
+     * @return the query object
+     */
+    private Query createQuery(String sql, DeviceFilterDTO filter, int mask, String mappingName) {
         try {
-            Map<String, Object> map = new HashMap<>();
-            StringBuilder stringBuilder = new StringBuilder(sql);
-            stringBuilder.append(" FROM device_api.device item");
-            stringBuilder.append(" WHERE 1 = 1");
-            applyFilters(filter, map, stringBuilder);
-            stringBuilder.append(" ").append(complement);
-            Query query = null;
-            if (mappingName == null) {
-                query = entityManager.createNativeQuery(stringBuilder.toString());
-            } else {
-                query = entityManager.createNativeQuery(stringBuilder.toString(), mappingName);
-            }
-            for (String key : map.keySet()) {
-                query.setParameter(key, map.get(key));
-            }
+            final Query query = mappingName == null ? entityManager.createNativeQuery(sql)
+                    : entityManager.createNativeQuery(sql, mappingName);
+            DeviceFilterSql.bindFilters(filter, mask, query::setParameter);
             return query;
         } catch (Exception e) {
             log.warn("getQueryByFilter " + e.getMessage());
@@ -149,38 +819,14 @@ public class DeviceCustomRepository implements IDeviceCustomRepository {
 
     /**
      * This method is used to apply the given filter to the query.
-     * It takes three parameters: the filter, the map to store the parameters and
-     * the string builder.
-     * It first checks if the filter has a brand, if so, it appends the brand filter
-     * to the SQL string and adds the brand to the map.
-     * It then checks if the filter has a name, if so, it appends the name filter to
-     * the SQL string and adds the name to the map.
-     * Finally, it checks if the filter has a searchText, if so, it appends the
-     * searchText filter to the SQL string and adds the searchText to the map.
+     * The filters are built by {@link DeviceFilterSql#applyFilters}, which is
+     * shared with the R2DBC repository so both stacks filter the same way.
      * 
      * @param filter        the device filter
      * @param map           the map to store the parameters
      * @param stringBuilder the string builder to append the filters to
      */
     public void applyFilters(DeviceFilterDTO filter, Map<String, Object> map, StringBuilder stringBuilder) {
-        if (StringUtils.hasText(filter.getBrand())) {
-            stringBuilder.append(" AND item.brand = :brand");
-            map.put("brand", filter.getBrand());
-        }
-        if (StringUtils.hasText(filter.getName())) {
-            stringBuilder.append(" AND item.name ILIKE :name");
-            map.put("name", "%" + filter.getName().trim() + "%");
-        }
-        if(filter.getState() != null) {
-            stringBuilder.append(" AND item.state = :state");
-            map.put("state", filter.getState().name());
-        }
-        if (StringUtils.hasText(filter.getSearchText())) {
-            stringBuilder.append(" AND (item.name ILIKE :searchText ");
-            stringBuilder.append(" OR item.brand ILIKE :searchText ");
-            stringBuilder.append(" OR item.state ILIKE :searchText ");
-            stringBuilder.append(" OR TO_CHAR(item.creation_time, 'YYYY-MM-DD HH24:MI:SS') ILIKE :searchText) ");
-            map.put("searchText", "%" + filter.getSearchText().trim() + "%");
-        }
+        DeviceFilterSql.applyFilters(filter, map, stringBuilder);
     }
 }
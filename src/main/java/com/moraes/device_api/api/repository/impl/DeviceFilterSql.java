@@ -0,0 +1,159 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+
+/**
+ * SQL fragments shared by the JPA and the R2DBC device repositories, so both
+ * stacks apply exactly the same filters and sort columns.
+ */
+public final class DeviceFilterSql {
+
+    public static final String LIST_SELECT = "SELECT item.id, item.name, item.brand, item.state,"
+            + " item.creation_time AS creationTime, item.version ";
+    public static final String FROM_WHERE = " FROM device_api.device item WHERE 1 = 1";
+
+    /*
+     * Bits of the filter mask, one per optional condition, in the order the
+     * conditions are appended.
+     */
+    public static final int BRAND = 1;
+    public static final int NAME = 1 << 1;
+    public static final int STATE = 1 << 2;
+    public static final int SEARCH_TEXT = 1 << 3;
+    public static final int FILTER_COMBINATIONS = 1 << 4;
+
+    private static final String[] CONDITIONS = new String[FILTER_COMBINATIONS];
+    private static final String[] WHERE_CLAUSES = new String[FILTER_COMBINATIONS];
+
+    // The column name is kept as an alias: it was the accepted spelling before
+    // the whitelist
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "brand", "brand",
+            "state", "state",
+            "creationTime", "creation_time",
+            "creation_time", "creation_time");
+
+    static {
+        for (int mask = 0; mask < FILTER_COMBINATIONS; mask++) {
+            final StringBuilder conditions = new StringBuilder();
+            if ((mask & BRAND) != 0) {
+                conditions.append(" AND item.brand = :brand");
+            }
+            if ((mask & NAME) != 0) {
+                conditions.append(" AND item.name ILIKE :name");
+            }
+            if ((mask & STATE) != 0) {
+                conditions.append(" AND item.state = :state");
+            }
+            if ((mask & SEARCH_TEXT) != 0) {
+                conditions.append(" AND item.search_text ILIKE :searchText");
+            }
+            CONDITIONS[mask] = conditions.toString();
+            WHERE_CLAUSES[mask] = FROM_WHERE + CONDITIONS[mask];
+        }
+    }
+
+    private DeviceFilterSql() {
+    }
+
+    /**
+     * Returns the mask of the conditions a filter activates.
+     * 
+     * @param filter the device filter
+     * @return a combination of {@link #BRAND}, {@link #NAME}, {@link #STATE} and
+     *         {@link #SEARCH_TEXT}
+     */
+    public static int filterMask(DeviceFilterDTO filter) {
+        int mask = 0;
+        if (StringUtils.hasText(filter.getBrand())) {
+            mask |= BRAND;
+        }
+        if (StringUtils.hasText(filter.getName())) {
+            mask |= NAME;
+        }
+        if (filter.getState() != null) {
+            mask |= STATE;
+        }
+        if (StringUtils.hasText(filter.getSearchText())) {
+            mask |= SEARCH_TEXT;
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the FROM and WHERE clauses for a filter mask. The strings are built
+     * once, so the same mask always yields the same instance.
+     * 
+     * @param mask the filter mask
+     * @return the FROM and WHERE clauses
+     */
+    public static String whereClause(int mask) {
+        return WHERE_CLAUSES[mask];
+    }
+
+    /**
+     * Passes the parameters of the conditions in the mask to the binder.
+     * 
+     * @param filter the device filter
+     * @param mask   the filter mask, from {@link #filterMask(DeviceFilterDTO)}
+     * @param binder receives each parameter name and value
+     */
+    public static void bindFilters(DeviceFilterDTO filter, int mask, BiConsumer<String, Object> binder) {
+        if ((mask & BRAND) != 0) {
+            binder.accept("brand", filter.getBrand());
+        }
+        if ((mask & NAME) != 0) {
+            binder.accept("name", "%" + filter.getName().trim() + "%");
+        }
+        if ((mask & STATE) != 0) {
+            binder.accept("state", filter.getState().name());
+        }
+        if ((mask & SEARCH_TEXT) != 0) {
+            binder.accept("searchText", "%" + filter.getSearchText().trim() + "%");
+        }
+    }
+
+    /**
+     * This method is used to apply the given filter to the query.
+     * It appends the precomputed conditions of the filter mask to the string
+     * builder and adds their parameters to the map: brand, name, state and
+     * searchText, in that order.
+     * The searchText is matched against the generated search_text column, which
+     * concatenates name, brand, state and creation time and is backed by a
+     * trigram GIN index, instead of one ILIKE per column. The fields are joined
+     * with the unit separator, so a term never matches across two of them.
+     * 
+     * @param filter        the device filter
+     * @param map           the map to store the parameters
+     * @param stringBuilder the string builder to append the filters to
+     */
+    public static void applyFilters(DeviceFilterDTO filter, Map<String, Object> map, StringBuilder stringBuilder) {
+        final int mask = filterMask(filter);
+        stringBuilder.append(CONDITIONS[mask]);
+        bindFilters(filter, mask, map::put);
+    }
+
+    /**
+     * Returns the column of a whitelisted sort property.
+     * 
+     * @param property the sort property
+     * @return the column name
+     * @throws ValidException with BAD_REQUEST if the property cannot be sorted by
+     */
+    public static String getSortColumn(String property) {
+        final String column = SORT_COLUMNS.get(property);
+        if (column == null) {
+            throw new ValidException("Invalid sort property: " + property, HttpStatus.BAD_REQUEST);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,82 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+public class DeviceOutboxRepository implements IDeviceOutboxRepository {
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO device_api.device_outbox (type, device_ids, state)"
+            + " VALUES (?, ?, ?)";
+    private static final String CLAIM_OUTBOX_SQL = "SELECT id, type, device_ids, state, created_at"
+            + " FROM device_api.device_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_OUTBOX_SQL = "DELETE FROM device_api.device_outbox WHERE id = ANY(?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertOutbox(DeviceEventDTO event) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_OUTBOX_SQL)) {
+                statement.setString(1, event.getType().name());
+                statement.setObject(2, event.getIds());
+                statement.setString(3, event.getState() == null ? null : event.getState().name());
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public List<DeviceOutboxDTO> claimOutbox(int limit) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            final List<DeviceOutboxDTO> dtos = new ArrayList<>(limit);
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM_OUTBOX_SQL)) {
+                statement.setInt(1, limit);
+                statement.setFetchSize(limit);
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        final String state = rows.getString(4);
+                        dtos.add(DeviceOutboxDTO.builder()
+                                .id(rows.getLong(1))
+                                .createdAt(rows.getObject(5, LocalDateTime.class))
+                                .event(DeviceEventDTO.builder()
+                                        .type(DeviceEventTypeEnum.valueOf(rows.getString(2)))
+                                        .ids(Arrays.stream((Long[]) rows.getArray(3).getArray())
+                                                .mapToLong(Long::longValue).toArray())
+                                        .state(state == null ? null : DeviceStateEnum.valueOf(state))
+                                        .build())
+                                .build());
+                    }
+                }
+            }
+            return dtos;
+        });
+    }
+
+    @Override
+    public void deleteOutbox(long[] ids) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_OUTBOX_SQL)) {
+                statement.setObject(1, ids);
+                statement.executeUpdate();
+            }
+        });
+    }
+}
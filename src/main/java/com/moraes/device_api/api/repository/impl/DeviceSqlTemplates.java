@@ -0,0 +1,144 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort.Direction;
+
+import com.moraes.device_api.api.exception.ValidException;
+
+/**
+ * Device list, count and estimate statements, built once per combination of
+ * filter mask, sort column and direction.
+ * <p>
+ * Every request with the same active filters and sort reuses the same SQL
+ * string, so Hibernate's query plan cache and the pgjdbc prepared statement
+ * cache hit instead of parsing a new statement. The sort column is never
+ * interpolated from the request: it has to be one of the whitelisted columns
+ * of {@link DeviceFilterSql#getSortColumn(String)}.
+ */
+public final class DeviceSqlTemplates {
+
+    private static final List<String> SORT_COLUMNS = List.of("id", "name", "brand", "state", "creation_time");
+    private static final int COMBINATIONS = DeviceFilterSql.FILTER_COMBINATIONS;
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private static final String[] COUNT = new String[COMBINATIONS];
+    private static final String[] ESTIMATE = new String[COMBINATIONS];
+    private static final String[] JDBC_ESTIMATE = new String[COMBINATIONS];
+    private static final String[] EXPORT = new String[COMBINATIONS];
+    private static final String[] LIST = new String[COMBINATIONS * SORT_COLUMNS.size() * DIRECTIONS];
+    private static final String[] KEYSET = new String[LIST.length * 2];
+
+    static {
+        for (int mask = 0; mask < COMBINATIONS; mask++) {
+            final String where = DeviceFilterSql.whereClause(mask);
+            COUNT[mask] = "SELECT COUNT(item.id) " + where;
+            ESTIMATE[mask] = "EXPLAIN SELECT item.id " + where;
+            JDBC_ESTIMATE[mask] = ESTIMATE[mask].replaceAll(":\\w+", "?");
+            EXPORT[mask] = DeviceFilterSql.LIST_SELECT + where + " ORDER BY item.id ASC";
+            for (int column = 0; column < SORT_COLUMNS.size(); column++) {
+                for (Direction direction : Direction.values()) {
+                    final int key = key(mask, column, direction);
+                    LIST[key] = DeviceFilterSql.LIST_SELECT + where
+                            + orderBy(SORT_COLUMNS.get(column), direction, false);
+                    KEYSET[key * 2] = DeviceFilterSql.LIST_SELECT + where
+                            + orderBy(SORT_COLUMNS.get(column), direction, true);
+                    KEYSET[key * 2 + 1] = DeviceFilterSql.LIST_SELECT + where
+                            + seek(SORT_COLUMNS.get(column), direction)
+                            + orderBy(SORT_COLUMNS.get(column), direction, true);
+                }
+            }
+        }
+    }
+
+    private DeviceSqlTemplates() {
+    }
+
+    /**
+     * @param mask the filter mask
+     * @return the COUNT statement of the filter mask
+     */
+    public static String count(int mask) {
+        return COUNT[mask];
+    }
+
+    /**
+     * @param mask the filter mask
+     * @return the EXPLAIN statement used to estimate the rows of the filter mask
+     */
+    public static String estimate(int mask) {
+        return ESTIMATE[mask];
+    }
+
+    /**
+     * Same as {@link #estimate(int)}, with positional parameters for plain
+     * JDBC. They are bound in the order of
+     * {@link DeviceFilterSql#bindFilters}, which is the order of the conditions.
+     * 
+     * @param mask the filter mask
+     * @return the EXPLAIN statement with positional parameters
+     */
+    public static String jdbcEstimate(int mask) {
+        return JDBC_ESTIMATE[mask];
+    }
+
+    /**
+     * @param mask the filter mask
+     * @return the list statement of the filter mask, ordered by id ascending
+     */
+    public static String export(int mask) {
+        return EXPORT[mask];
+    }
+
+    /**
+     * Returns the list statement of a filter mask and sort.
+     * 
+     * @param mask      the filter mask
+     * @param property  the sort property
+     * @param direction the sort direction
+     * @return the list statement
+     * @throws ValidException with BAD_REQUEST if the property cannot be sorted by
+     */
+    public static String list(int mask, String property, Direction direction) {
+        return LIST[key(mask, columnIndex(property), direction)];
+    }
+
+    /**
+     * Returns the keyset statement of a filter mask and sort. With a cursor, the
+     * statement seeks past :cursorId, and past :cursorValue unless the sort
+     * column is the id.
+     * 
+     * @param mask      the filter mask
+     * @param property  the sort property
+     * @param direction the sort direction
+     * @param cursor    whether the statement seeks past a cursor
+     * @return the keyset statement
+     * @throws ValidException with BAD_REQUEST if the property cannot be sorted by
+     */
+    public static String keyset(int mask, String property, Direction direction, boolean cursor) {
+        return KEYSET[key(mask, columnIndex(property), direction) * 2 + (cursor ? 1 : 0)];
+    }
+
+    private static int columnIndex(String property) {
+        return SORT_COLUMNS.indexOf(DeviceFilterSql.getSortColumn(property));
+    }
+
+    private static int key(int mask, int column, Direction direction) {
+        return (mask * SORT_COLUMNS.size() + column) * DIRECTIONS + direction.ordinal();
+    }
+
+    private static String orderBy(String column, Direction direction, boolean tieBreak) {
+        if (!tieBreak || "id".equals(column)) {
+            return String.format(" ORDER BY item.%s %s", column, direction.name());
+        }
+        return String.format(" ORDER BY item.%s %s, item.id %s", column, direction.name(), direction.name());
+    }
+
+    private static String seek(String column, Direction direction) {
+        final String operator = Direction.ASC.equals(direction) ? ">" : "<";
+        if ("id".equals(column)) {
+            return String.format(" AND item.id %s :cursorId", operator);
+        }
+        return String.format(" AND (item.%s, item.id) %s (:cursorValue, :cursorId)", column, operator);
+    }
+}
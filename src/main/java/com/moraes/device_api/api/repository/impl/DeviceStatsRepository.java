@@ -0,0 +1,100 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import com.moraes.device_api.api.model.dto.device.DeviceStateCountDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceStatsRepository;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@Repository
+public class DeviceStatsRepository implements IDeviceStatsRepository {
+
+    private static final String STATS_SQL = "SELECT brand, state, devices, refreshed_at FROM device_api.device_stats"
+            + " ORDER BY brand, state";
+    private static final String LOCK_STATS_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('device_api.device_stats'))";
+    private static final String REFRESH_STATS_SQL = "REFRESH MATERIALIZED VIEW CONCURRENTLY device_api.device_stats";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DeviceStatsRepository(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public DeviceStatsRepository(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public DeviceStatsDTO findStats() {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final DeviceStatsDTO stats = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                final List<DeviceStateCountDTO> counts = new ArrayList<>();
+                LocalDateTime refreshedAt = null;
+                try (PreparedStatement statement = connection.prepareStatement(STATS_SQL);
+                        ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        counts.add(DeviceStateCountDTO.builder()
+                                .brand(rows.getString(1))
+                                .state(DeviceStateEnum.valueOf(rows.getString(2)))
+                                .devices(rows.getLong(3))
+                                .build());
+                        refreshedAt = rows.getObject(4, LocalDateTime.class);
+                    }
+                }
+                return DeviceStatsDTO.builder().counts(counts).refreshedAt(refreshedAt).build();
+            });
+            DeviceMetrics.recordQuery(meterRegistry, sample, "stats", 0, null, stats.getCounts().size());
+            return stats;
+        } catch (RuntimeException e) {
+            DeviceMetrics.recordQuery(meterRegistry, sample, "stats", 0, e, -1);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean refreshStats() {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final boolean refreshed = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(LOCK_STATS_SQL);
+                        ResultSet rows = statement.executeQuery()) {
+                    if (!rows.next() || !rows.getBoolean(1)) {
+                        return false;
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(REFRESH_STATS_SQL)) {
+                    statement.execute();
+                }
+                return true;
+            });
+            DeviceMetrics.recordQuery(meterRegistry, sample, "stats_refresh", 0, null, -1);
+            return refreshed;
+        } catch (RuntimeException e) {
+            DeviceMetrics.recordQuery(meterRegistry, sample, "stats_refresh", 0, e, -1);
+            throw e;
+        }
+    }
+}
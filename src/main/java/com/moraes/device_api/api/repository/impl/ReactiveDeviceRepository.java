@@ -0,0 +1,187 @@
+package com.moraes.device_api.api.repository.impl;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IReactiveDeviceRepository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDeviceRepository implements IReactiveDeviceRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO device_api.device (name, brand, state, creation_time)"
+            + " VALUES (:name, :brand, :state, :creationTime) RETURNING id";
+    private static final String BY_ID_SQL = DeviceFilterSql.LIST_SELECT + DeviceFilterSql.FROM_WHERE
+            + " AND item.id = :id";
+    private static final String UPDATE_SQL = """
+            UPDATE device_api.device
+            SET name = :name, brand = :brand, state = :state, version = version + 1,
+                updated_at = LOCALTIMESTAMP
+            WHERE id = :id
+                AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)
+                AND (state <> 'IN_USE' OR (name = :name AND brand = :brand))
+            RETURNING state
+            """;
+    private static final String UPDATE_PARTIAL_SQL = """
+            UPDATE device_api.device
+            SET name = COALESCE(:name, name), brand = COALESCE(:brand, brand),
+                state = COALESCE(:state, state), version = version + 1, updated_at = LOCALTIMESTAMP
+            WHERE id = :id
+                AND (CAST(:expectedVersion AS BIGINT) IS NULL OR version = :expectedVersion)
+                AND (state <> 'IN_USE'
+                    OR (name = COALESCE(:name, name) AND brand = COALESCE(:brand, brand)))
+            RETURNING state
+            """;
+    private static final String PAGE_SQL = " LIMIT :limit OFFSET :offset";
+    private static final String DELETE_SQL = "WITH deleted AS (DELETE FROM device_api.device"
+            + " WHERE id = :id AND state <> 'IN_USE' RETURNING id)"
+            + " INSERT INTO device_api.device_tombstone (id) SELECT id FROM deleted";
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO device_api.device_outbox (type, device_ids, state)"
+            + " VALUES (:type, :deviceIds, :state)";
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${device-api.reactive.fetch-size:250}")
+    private int fetchSize;
+
+    @Override
+    public Mono<Long> insert(DeviceDTO dto) {
+        final DeviceStateEnum state = dto.getState() == null ? DeviceStateEnum.AVAILABLE : dto.getState();
+        return databaseClient.sql(INSERT_SQL)
+                .bind("name", dto.getName())
+                .bind("brand", dto.getBrand())
+                .bind("state", state.name())
+                .bind("creationTime", LocalDateTime.now())
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    @Override
+    public Mono<DeviceListDTO> findById(Long id) {
+        return databaseClient.sql(BY_ID_SQL)
+                .bind("id", id)
+                .map(ReactiveDeviceRepository::toDTO)
+                .one();
+    }
+
+    /**
+     * Streams the devices matching a filter.
+     * <p>
+     * The statement comes from {@link DeviceSqlTemplates}, shared with
+     * {@link DeviceCustomRepository}. The sort defaults to id DESC and the
+     * property is checked against the sortable columns. Paginated filters read
+     * one page with LIMIT/OFFSET; the others stream every matching row.
+     * <p>
+     * Rows are fetched from a cursor in chunks of
+     * 'device-api.reactive.fetch-size', on demand.
+     */
+    @Override
+    public Flux<DeviceListDTO> findByFilter(DeviceFilterDTO filter) {
+        final Map<String, Object> map = new HashMap<>();
+        final int mask = DeviceFilterSql.filterMask(filter);
+        DeviceFilterSql.bindFilters(filter, mask, map::put);
+        final String property = StringUtils.hasText(filter.getProperty()) ? filter.getProperty() : "id";
+        final Direction direction = filter.getDirection() == null ? Direction.DESC : filter.getDirection();
+        String sql = DeviceSqlTemplates.list(mask, property, direction);
+        if (filter.isPaginate()) {
+            sql += PAGE_SQL;
+            map.put("limit", filter.getSize());
+            map.put("offset", (long) filter.getSize() * filter.getPage());
+        }
+        return stream(sql, map);
+    }
+
+    @Override
+    public Flux<DeviceListDTO> findByState(DeviceStateEnum state, Pageable pageable) {
+        return findByFilter(paged(pageable).state(state).build());
+    }
+
+    @Override
+    public Flux<DeviceListDTO> findByBrand(String brand, Pageable pageable) {
+        return findByFilter(paged(pageable).brand(brand).build());
+    }
+
+    @Override
+    public Mono<DeviceStateEnum> updateIfAllowed(Long id, DeviceDTO dto, Long expectedVersion) {
+        return update(UPDATE_SQL, id, dto, expectedVersion);
+    }
+
+    @Override
+    public Mono<DeviceStateEnum> updatePartialIfAllowed(Long id, DeviceDTO dto, Long expectedVersion) {
+        return update(UPDATE_PARTIAL_SQL, id, dto, expectedVersion);
+    }
+
+    @Override
+    public Mono<Long> deleteIfNotInUse(Long id) {
+        return databaseClient.sql(DELETE_SQL).bind("id", id).fetch().rowsUpdated();
+    }
+
+    @Override
+    public Mono<Void> insertOutbox(DeviceEventDTO event) {
+        GenericExecuteSpec spec = databaseClient.sql(INSERT_OUTBOX_SQL)
+                .bind("type", event.getType().name())
+                .bind("deviceIds", Arrays.stream(event.getIds()).boxed().toArray(Long[]::new));
+        spec = bindNullable(spec, "state", event.getState() == null ? null : event.getState().name(), String.class);
+        return spec.then();
+    }
+
+    private Mono<DeviceStateEnum> update(String sql, Long id, DeviceDTO dto, Long expectedVersion) {
+        GenericExecuteSpec spec = databaseClient.sql(sql).bind("id", id);
+        spec = bindNullable(spec, "name", dto.getName(), String.class);
+        spec = bindNullable(spec, "brand", dto.getBrand(), String.class);
+        spec = bindNullable(spec, "state", dto.getState() == null ? null : dto.getState().name(), String.class);
+        spec = bindNullable(spec, "expectedVersion", expectedVersion, Long.class);
+        return spec.map(row -> DeviceStateEnum.valueOf(row.get("state", String.class))).one();
+    }
+
+    private Flux<DeviceListDTO> stream(String sql, Map<String, Object> parameters) {
+        GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            spec = spec.bind(parameter.getKey(), parameter.getValue());
+        }
+        if (fetchSize > 0) {
+            spec = spec.filter(statement -> statement.fetchSize(fetchSize));
+        }
+        return spec.map(ReactiveDeviceRepository::toDTO).all();
+    }
+
+    private static DeviceFilterDTO.DeviceFilterDTOBuilder paged(Pageable pageable) {
+        final DeviceFilterDTO.DeviceFilterDTOBuilder builder = DeviceFilterDTO.builder().direction(Direction.DESC);
+        return pageable.isPaged()
+                ? builder.paginate(true).page(pageable.getPageNumber()).size(pageable.getPageSize())
+                : builder;
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value,
+            Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static DeviceListDTO toDTO(Readable row) {
+        return new DeviceListDTO(row.get("id", Long.class), row.get("name", String.class),
+                row.get("brand", String.class), row.get("state", String.class),
+                row.get("creationTime", LocalDateTime.class), row.get("version", Long.class));
+    }
+}
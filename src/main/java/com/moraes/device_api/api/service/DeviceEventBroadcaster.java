@@ -0,0 +1,196 @@
+package com.moraes.device_api.api.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes the device events published by DeviceService to Server-Sent Events
+ * subscribers, once their transaction commits.
+ * <p>
+ * Each subscriber has a bounded queue drained by its own virtual thread, so
+ * the committing thread only offers the event and never waits on a client. A
+ * subscriber whose queue is full is dropped: its stream is completed and the
+ * client reconnects and catches up through the change feed. Idle streams get a
+ * heartbeat comment, which also detects clients that went away.
+ */
+@Slf4j
+@Profile("!reactive")
+@Component
+public class DeviceEventBroadcaster {
+
+    private static final String HEARTBEAT = "heartbeat";
+    private static final String THREAD_NAME = "device-events";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // one permit per open stream, taken before the stream is created so concurrent subscribes never exceed the maximum
+    private final Semaphore slots;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final int queueSize;
+
+    private final Duration heartbeat;
+
+    private final Duration timeout;
+
+    private final Counter dropped;
+
+    public DeviceEventBroadcaster(@Value("${device-api.events.max-subscribers:100}") int maxSubscribers,
+            @Value("${device-api.events.queue-size:256}") int queueSize,
+            @Value("${device-api.events.heartbeat:15s}") Duration heartbeat,
+            @Value("${device-api.events.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.slots = new Semaphore(maxSubscribers);
+        this.queueSize = queueSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        Gauge.builder(DeviceMetrics.EVENTS_SUBSCRIBERS, subscribers, Set::size)
+                .description("Device event stream subscribers")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(DeviceMetrics.EVENTS_DROPPED)
+                .description("Device event subscribers dropped for falling behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a device event stream.
+     * 
+     * @return the emitter of the stream
+     * @throws PatternException with SERVICE_UNAVAILABLE if the maximum amount of
+     *                          subscribers is reached
+     */
+    public SseEmitter subscribe() {
+        if (!slots.tryAcquire()) {
+            throw new PatternException("Too many device event subscribers, retry later.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        final Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()),
+                new ArrayBlockingQueue<>(queueSize));
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        try {
+            subscriber.thread = Thread.ofVirtual().name(THREAD_NAME).start(() -> drain(subscriber));
+        } catch (RuntimeException e) {
+            remove(subscriber);
+            throw e;
+        }
+        log.debug("Device event subscriber added, {} subscribers", subscribers.size());
+        return subscriber.emitter;
+    }
+
+    /**
+     * Offers a committed device event to every subscriber, dropping the ones
+     * whose queue is full.
+     * 
+     * @param event the device event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDeviceEvent(DeviceEventDTO event) {
+        final Entry entry = new Entry(sequence.incrementAndGet(), event);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(entry)) {
+                log.debug("Dropping device event subscriber after {} pending events", queueSize);
+                dropped.increment();
+                remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * @return the amount of open streams
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Sends the queued events of a subscriber until its stream closes, with a
+     * heartbeat comment when no event arrives in time. The stream is completed
+     * here, on the subscriber's own thread, so a dropped client never blocks the
+     * thread that dropped it.
+     * 
+     * @param subscriber the subscriber
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            while (subscribers.contains(subscriber)) {
+                final Entry entry = subscriber.queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment(HEARTBEAT));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(entry.id))
+                            .name(entry.event.getType().name().toLowerCase())
+                            .data(entry.event));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Device event subscriber closed: {}", e.getMessage());
+        } finally {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * Removes a subscriber, frees its slot and wakes its thread up to complete
+     * the stream. Called once per way a stream can end, so it is idempotent.
+     * 
+     * @param subscriber the subscriber
+     */
+    private void remove(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        slots.release();
+        if (subscriber.thread != null && subscriber.thread != Thread.currentThread()) {
+            subscriber.thread.interrupt();
+        }
+    }
+
+    private record Entry(long id, DeviceEventDTO event) {
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Entry> queue;
+
+        private volatile Thread thread;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<Entry> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
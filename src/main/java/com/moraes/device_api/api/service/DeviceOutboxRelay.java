@@ -0,0 +1,99 @@
+package com.moraes.device_api.api.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+import com.moraes.device_api.api.service.interfaces.IDeviceEventSink;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays the device events of the outbox to the configured sink.
+ * <p>
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED, published and deleted in
+ * bulk in one transaction, so an event leaves the outbox only once the sink
+ * accepted it. Every instance runs its own relay and skips the rows claimed by
+ * the others, so relay throughput grows with the number of instances. Full
+ * batches are followed right away by the next one; the poll interval only
+ * applies once the outbox is drained.
+ * <p>
+ * It runs in both profiles: the reactive one writes its events to the same
+ * outbox, and the relay reads it through JDBC.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "device-api.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Component
+public class DeviceOutboxRelay {
+
+    private final IDeviceOutboxRepository outboxRepository;
+
+    private final IDeviceEventSink sink;
+
+    private final TransactionTemplate transaction;
+
+    private final int batchSize;
+
+    private final Counter relayed;
+
+    public DeviceOutboxRelay(IDeviceOutboxRepository outboxRepository, IDeviceEventSink sink,
+            PlatformTransactionManager transactionManager,
+            @Value("${device-api.outbox.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.relayed = Counter.builder(DeviceMetrics.OUTBOX_RELAYED)
+                .description("Device events relayed from the outbox to the sink")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox has no more unclaimed events or a batch
+     * fails.
+     */
+    @Scheduled(fixedDelayString = "${device-api.outbox.poll-interval:1s}")
+    public void relay() {
+        int relayedEvents;
+        do {
+            relayedEvents = relayBatch();
+        } while (relayedEvents == batchSize);
+    }
+
+    /**
+     * Claims, publishes and deletes one batch of outbox events.
+     * <p>
+     * A failure of the sink rolls the transaction back: the events are unlocked
+     * and relayed again by the next poll, from this or another instance.
+     * 
+     * @return the amount of relayed events, 0 if none or if the batch failed
+     */
+    public int relayBatch() {
+        try {
+            final Integer count = transaction.execute(status -> {
+                final List<DeviceOutboxDTO> events = outboxRepository.claimOutbox(batchSize);
+                if (!events.isEmpty()) {
+                    sink.publish(events);
+                    outboxRepository.deleteOutbox(events.stream().mapToLong(DeviceOutboxDTO::getId).toArray());
+                }
+                return events.size();
+            });
+            relayed.increment(count);
+            return count;
+        } catch (RuntimeException e) {
+            log.warn("relayBatch {}", e.getMessage(), e);
+            return 0;
+        }
+    }
+}
@@ -1,26 +1,62 @@
 package com.moraes.device_api.api.service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moraes.device_api.api.exception.PatternException;
 import com.moraes.device_api.api.exception.ResourceNotFoundException;
 import com.moraes.device_api.api.exception.ValidException;
 import com.moraes.device_api.api.mapper.IDeviceMapper;
 import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.CursorDTO;
 import com.moraes.device_api.api.model.dto.ExceptionUtilDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchErrorDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangesDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
 import com.moraes.device_api.api.repository.IDeviceCustomRepository;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+import com.moraes.device_api.api.repository.IDeviceStatsRepository;
 import com.moraes.device_api.api.repository.IDeviceRepository;
 import com.moraes.device_api.api.service.interfaces.IDeviceService;
+import com.moraes.device_api.api.util.CursorUtil;
 import com.moraes.device_api.api.util.ExceptionsUtil;
+import com.moraes.device_api.api.util.IdsUtil;
+import com.moraes.device_api.config.CacheConfig;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,21 +65,85 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class DeviceService implements IDeviceService {
 
+    private static final String JOKER = "####";
+    private static final String CONCURRENT_MODIFICATION = "Device was modified concurrently, reload it and retry.";
+    private static final String CHANGES_CURSOR = "updatedAt";
+    private static final String INVALID_CURSOR = "Invalid cursor.";
+
     private final IDeviceRepository repository;
     private final IDeviceCustomRepository customRepository;
+    private final IDeviceChangeRepository changeRepository;
+    private final IDeviceOutboxRepository outboxRepository;
+    private final IDeviceStatsRepository statsRepository;
 
     private final IDeviceMapper mapper;
 
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${device-api.bulk.max-ids:10000}")
+    private int bulkMaxIds = 10000;
+
+    @Value("${device-api.changes.max-size:1000}")
+    private int changesMaxSize = 1000;
+
+    @Value("${device-api.changes.settle-ms:5000}")
+    private long changesSettleMs = 5000;
+
+    @Value("${device-api.second-level-cache.max-page-size:100}")
+    private int cacheMaxPageSize = 100;
+
+    @Value("${device-api.outbox.enabled:true}")
+    private boolean outboxEnabled = true;
+
     @Transactional
     @Override
     public Long insert(DeviceDTO dto) {
         log.debug("Inserting a new device: {}", dto);
         Device object = mapper.toEntity(dto);
         object = repository.save(object);
+        publishEvent(DeviceEventTypeEnum.CREATED, new long[] { object.getId() }, object.getState());
         log.debug("Device inserted with ID: {}", object.getId());
         return object.getId();
     }
 
+    @Transactional
+    @Override
+    public DeviceBatchResultDTO insertBatch(List<DeviceDTO> dtos) {
+        log.debug("Inserting a batch of {} devices", dtos.size());
+        final List<Device> devices = new ArrayList<>(dtos.size());
+        final List<DeviceBatchErrorDTO> errors = new LinkedList<>();
+        final boolean[] rejected = new boolean[dtos.size()];
+        for (int i = 0; i < dtos.size(); i++) {
+            final List<String> messages = validateBatchItem(dtos.get(i));
+            if (messages.isEmpty()) {
+                final Device device = mapper.toEntity(dtos.get(i));
+                device.prePersist();
+                devices.add(device);
+            } else {
+                rejected[i] = true;
+                errors.add(DeviceBatchErrorDTO.builder().index(i).messages(messages).build());
+            }
+        }
+        final List<Long> inserted = devices.isEmpty() ? List.of() : customRepository.insertBatch(devices);
+        final Iterator<Long> insertedIds = inserted.iterator();
+        final List<Long> ids = new ArrayList<>(dtos.size());
+        for (boolean isRejected : rejected) {
+            ids.add(isRejected ? null : insertedIds.next());
+        }
+        publishBatchCreated(devices, inserted);
+        log.debug("Batch inserted: {} devices, {} rejected", devices.size(), errors.size());
+        return DeviceBatchResultDTO.builder()
+                .inserted(devices.size())
+                .ids(ids)
+                .errors(errors)
+                .build();
+    }
+
+    @Cacheable(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional(readOnly = true)
     @Override
     public DeviceListDTO getDTOById(Long id) {
@@ -53,39 +153,70 @@ public class DeviceService implements IDeviceService {
         return mapper.toListDTO(object);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public void update(Long id, DeviceDTO dto) {
+        update(id, dto, null);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+    @Transactional
+    @Override
+    public void update(Long id, DeviceDTO dto, Long expectedVersion) {
         log.debug("Updating device with ID: {} using data: {}", id, dto);
-        Device existingObject = getById(id);
-        validateBeforeUpdate(existingObject, dto);
-        mapper.updateFromDeviceDTO(dto, existingObject);
-        repository.save(existingObject);
+        final DeviceStateEnum state = customRepository.updateIfAllowed(id, dto.getName(), dto.getBrand(),
+                dto.getState(), expectedVersion);
+        if (state == null) {
+            throwUpdateRejected(getById(id), dto, expectedVersion);
+        }
+        publishEvent(DeviceEventTypeEnum.UPDATED, new long[] { id }, state);
         log.debug("Device with ID: {} updated successfully", id);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public void updatePartial(Long id, DeviceDTO dto) {
+        updatePartial(id, dto, null);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
+    @Transactional
+    @Override
+    public void updatePartial(Long id, DeviceDTO dto, Long expectedVersion) {
         log.debug("Partially updating device with ID: {} using data: {}", id, dto);
-        Device existingObject = getById(id);
-        validateBeforeUpdate(existingObject, dto);
-        mapper.updatePartialFromDeviceDTO(dto, existingObject);
-        repository.save(existingObject);
+        // without a state in the PATCH, the event carries the state the device kept
+        final DeviceStateEnum state = customRepository.updatePartialIfAllowed(id, dto.getName(), dto.getBrand(),
+                dto.getState(), expectedVersion);
+        if (state == null) {
+            final Device existingObject = getById(id);
+            throwUpdateRejected(existingObject, DeviceDTO.builder()
+                    .name(dto.getName() == null ? existingObject.getName() : dto.getName())
+                    .brand(dto.getBrand() == null ? existingObject.getBrand() : dto.getBrand())
+                    .state(dto.getState())
+                    .build(), expectedVersion);
+        }
+        publishEvent(DeviceEventTypeEnum.UPDATED, new long[] { id }, state);
         log.debug("Device with ID: {} partially updated successfully", id);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, key = "#id")
     @Transactional
     @Override
     public void delete(Long id) {
         log.debug("Deleting device with ID: {}", id);
-        final Device object = getById(id);
-        ExceptionsUtil.throwValidExceptions(
-                ExceptionUtilDTO.builder()
-                        .condition(!DeviceStateEnum.IN_USE.equals(object.getState()))
-                        .message("Device in use cannot be deleted.")
-                        .build());
-        repository.delete(object);
+        // same statement as the bulk delete, which writes the tombstone of the change feed
+        if (customRepository.deleteByIdsIfNotInUse(new long[] { id }).length == 0) {
+            final Device object = getById(id);
+            ExceptionsUtil.throwValidExceptions(
+                    ExceptionUtilDTO.builder()
+                            .condition(!DeviceStateEnum.IN_USE.equals(object.getState()))
+                            .message("Device in use cannot be deleted.")
+                            .build());
+            throw new ValidException(CONCURRENT_MODIFICATION);
+        }
+        publishEvent(DeviceEventTypeEnum.DELETED, new long[] { id }, null);
         log.debug("Device with ID: {} deleted successfully", id);
     }
 
@@ -100,26 +231,110 @@ public class DeviceService implements IDeviceService {
 
     @Transactional(readOnly = true)
     @Override
-    public List<DeviceListDTO> getByState(DeviceStateEnum state) {
-        log.debug("Fetching devices by state with state: {}", state);
-        final List<Device> devices = repository.findByState(state);
-        validateDevicesByParam(state.name(), devices);
-        final List<DeviceListDTO> dtos = mapper.toListDTOs(devices);
+    public List<DeviceListDTO> getByState(DeviceStateEnum state, Pageable pageable) {
+        log.debug("Fetching devices by state with state: {}, page: {}", state, pageable);
+        final List<DeviceListDTO> dtos = isCacheable(pageable) ? repository.findListByState(state, pageable)
+                : repository.findAllListByState(state, pageable);
+        validateDevicesByParam(state.name(), dtos);
         log.debug("Devices fetched by state: {}", dtos);
         return dtos;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<DeviceListDTO> getByBrand(String brand) {
-        log.debug("Fetching devices by brand with param: {}", brand);
-        final List<Device> devices = repository.findByBrand(brand);
-        validateDevicesByParam(brand, devices);
-        final List<DeviceListDTO> dtos = mapper.toListDTOs(devices);
+    public List<DeviceListDTO> getByBrand(String brand, Pageable pageable) {
+        log.debug("Fetching devices by brand with param: {}, page: {}", brand, pageable);
+        final List<DeviceListDTO> dtos = isCacheable(pageable) ? repository.findListByBrand(brand, pageable)
+                : repository.findAllListByBrand(brand, pageable);
+        validateDevicesByParam(brand, dtos);
         log.debug("Devices fetched by brand: {}", dtos);
         return dtos;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void export(DeviceFilterDTO filter, OutputStream outputStream) throws IOException {
+        log.debug("Exporting devices with filter: {}", filter);
+        final OutputStream out = new BufferedOutputStream(outputStream);
+        long count = 0;
+        try (Stream<DeviceListDTO> devices = customRepository.streamByFilter(filter)) {
+            final Iterator<DeviceListDTO> iterator = devices.iterator();
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                count++;
+            }
+        }
+        out.flush();
+        log.debug("Devices exported: {}", count);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<DeviceListDTO> getByIds(long[] ids) {
+        final long[] distinctIds = validateIds(ids);
+        log.debug("Fetching {} devices by ID", distinctIds.length);
+        final List<DeviceListDTO> dtos = customRepository.findByIds(distinctIds);
+        log.debug("Devices fetched by ID: {}", dtos.size());
+        return dtos;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, allEntries = true)
+    @Transactional
+    @Override
+    public DeviceBulkResultDTO deleteByIds(long[] ids) {
+        final long[] distinctIds = validateIds(ids);
+        log.debug("Deleting {} devices by ID", distinctIds.length);
+        final long[] deleted = customRepository.deleteByIdsIfNotInUse(distinctIds);
+        publishEvent(DeviceEventTypeEnum.DELETED, deleted, null);
+        log.debug("Devices deleted: {}", deleted.length);
+        return toBulkResult(distinctIds, deleted);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.DEVICES_CACHE, allEntries = true)
+    @Transactional
+    @Override
+    public DeviceBulkResultDTO updateStateByIds(long[] ids, DeviceStateEnum state) {
+        final long[] distinctIds = validateIds(ids);
+        log.debug("Setting state {} on {} devices", state, distinctIds.length);
+        final long[] updated = customRepository.updateStateByIds(distinctIds, state);
+        publishEvent(DeviceEventTypeEnum.UPDATED, updated, state);
+        log.debug("Devices updated: {}", updated.length);
+        return toBulkResult(distinctIds, updated);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DeviceChangesDTO getChanges(String since, int size) {
+        if (size <= 0 || size > changesMaxSize) {
+            throw new ValidException("Size must be between 1 and %d.".formatted(changesMaxSize),
+                    HttpStatus.BAD_REQUEST);
+        }
+        final CursorDTO cursor = since == null ? null : CursorUtil.decode(since);
+        final LocalDateTime sinceTime = cursor == null ? LocalDateTime.MIN : getChangesCursorTime(cursor);
+        final long sinceId = cursor == null ? 0L : cursor.getId();
+        log.debug("Fetching device changes since {} / {}", sinceTime, sinceId);
+        final List<DeviceChangeDTO> changes = changeRepository.findChanges(sinceTime, sinceId,
+                Duration.ofMillis(changesSettleMs), size + 1);
+        final boolean hasMore = changes.size() > size;
+        final List<DeviceChangeDTO> page = hasMore ? List.copyOf(changes.subList(0, size)) : changes;
+        log.debug("Device changes fetched: {}", page.size());
+        return DeviceChangesDTO.builder()
+                .changes(page)
+                .nextCursor(page.isEmpty() ? since : toChangesCursor(page.get(page.size() - 1)))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public DeviceStatsDTO getStats() {
+        log.debug("Fetching device stats");
+        final DeviceStatsDTO stats = statsRepository.findStats();
+        log.debug("Device stats fetched: {} as of {}", stats.getCounts().size(), stats.getRefreshedAt());
+        return stats;
+    }
+
     /**
      * Retrieves a device by its ID.
      * <p>
@@ -142,6 +357,44 @@ public class DeviceService implements IDeviceService {
         return object;
     }
 
+    /**
+     * Explains why a conditional update did not affect any row.
+     * <p>
+     * Only runs after the single-statement update was rejected, so the happy path
+     * stays at one round trip. The caller loads the device, which already tells a
+     * missing device (404); this method tells a stale version (412) from a rule
+     * violation or a concurrent change (409).
+     * 
+     * @param existingObject  the current device
+     * @param dto             the values the update tried to apply
+     * @param expectedVersion the version expected by the client, or null
+     * @throws PatternException always, with the status of the rejection
+     */
+    private void throwUpdateRejected(Device existingObject, DeviceDTO dto, Long expectedVersion) {
+        validateVersion(existingObject, expectedVersion);
+        validateBeforeUpdate(existingObject, dto);
+        throw new ValidException(CONCURRENT_MODIFICATION);
+    }
+
+    /**
+     * Validates the version of a device against the version expected by the
+     * client.
+     * <p>
+     * This method is used to honor If-Match headers: the update is only applied
+     * if the device was not modified since the client read it.
+     * 
+     * @param entity          the device entity to validate
+     * @param expectedVersion the version expected by the client, or null to
+     *                        accept any version
+     * @throws PatternException with PRECONDITION_FAILED if the versions differ
+     */
+    public void validateVersion(Device entity, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+            throw new PatternException("Device was modified since version " + expectedVersion + ".",
+                    HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
     /**
      * Validates a device before update.
      * <p>
@@ -175,6 +428,146 @@ public class DeviceService implements IDeviceService {
         }
     }
 
+    /**
+     * Validates a device of a batch insert.
+     * <p>
+     * The same constraints of a single insert are checked, and the messages are
+     * returned instead of thrown so the other devices of the batch can still be
+     * inserted.
+     * 
+     * @param dto the device DTO object to validate
+     * @return the validation messages, empty if the device is valid
+     */
+    public List<String> validateBatchItem(DeviceDTO dto) {
+        if (dto == null) {
+            return List.of("Device must be provided.");
+        }
+        return validator.validate(dto).stream()
+                .map(violation -> violation.getMessage().replace(JOKER, violation.getPropertyPath().toString()))
+                .toList();
+    }
+
+    /**
+     * Validates the IDs of a bulk operation.
+     * <p>
+     * At least one ID must be given, and no more than the
+     * 'device-api.bulk.max-ids' property, so a single statement never carries an
+     * unbounded array.
+     * 
+     * @param ids the requested IDs
+     * @return the IDs sorted and without duplicates
+     * @throws ValidException with BAD_REQUEST if the IDs are missing or too many
+     */
+    public long[] validateIds(long[] ids) {
+        if (ids == null || ids.length == 0) {
+            throw new ValidException("At least one device ID must be provided.", HttpStatus.BAD_REQUEST);
+        }
+        final long[] distinctIds = IdsUtil.distinctSorted(ids);
+        if (distinctIds.length > bulkMaxIds) {
+            throw new ValidException("At most %d device IDs can be provided.".formatted(bulkMaxIds),
+                    HttpStatus.BAD_REQUEST);
+        }
+        return distinctIds;
+    }
+
+    /**
+     * Tells whether a state or brand list goes through the query cache. Only
+     * pages up to the configured size do, so every cached result stays small
+     * whatever the number of devices and of distinct brands.
+     * 
+     * @param pageable the page to read
+     * @return true if the list may be cached
+     */
+    private boolean isCacheable(Pageable pageable) {
+        return pageable.isPaged() && pageable.getPageSize() <= cacheMaxPageSize;
+    }
+
+    /**
+     * Builds the result of a bulk operation from the requested and the affected
+     * IDs.
+     * 
+     * @param ids         the requested IDs, sorted and distinct
+     * @param affectedIds the affected IDs, sorted
+     * @return the result of the bulk operation
+     */
+    private static DeviceBulkResultDTO toBulkResult(long[] ids, long[] affectedIds) {
+        return DeviceBulkResultDTO.builder()
+                .affected(affectedIds.length)
+                .skippedIds(IdsUtil.difference(ids, affectedIds))
+                .build();
+    }
+
+    /**
+     * Publishes a device event, sent to the event stream subscribers once the
+     * current transaction commits and dropped if it rolls back.
+     * <p>
+     * With 'device-api.outbox.enabled', the event is also written to the outbox
+     * in the current transaction, so it is relayed if and only if the device
+     * write commits.
+     * 
+     * @param type  the type of the change
+     * @param ids   the IDs of the changed devices, nothing is published if empty
+     * @param state the state written by the change, or null
+     */
+    private void publishEvent(DeviceEventTypeEnum type, long[] ids, DeviceStateEnum state) {
+        if (ids.length == 0) {
+            return;
+        }
+        final DeviceEventDTO event = DeviceEventDTO.builder().type(type).ids(ids).state(state).build();
+        if (outboxEnabled) {
+            outboxRepository.insertOutbox(event);
+        }
+        eventPublisher.publishEvent(event);
+    }
+
+    /**
+     * Publishes the devices of a batch insert, one event per state.
+     * 
+     * @param devices the inserted devices
+     * @param ids     the IDs of the devices, in the same order
+     */
+    private void publishBatchCreated(List<Device> devices, List<Long> ids) {
+        final Map<DeviceStateEnum, List<Long>> idsByState = new EnumMap<>(DeviceStateEnum.class);
+        for (int i = 0; i < devices.size(); i++) {
+            idsByState.computeIfAbsent(devices.get(i).getState(), state -> new ArrayList<>()).add(ids.get(i));
+        }
+        idsByState.forEach((state, stateIds) -> publishEvent(DeviceEventTypeEnum.CREATED,
+                stateIds.stream().mapToLong(Long::longValue).toArray(), state));
+    }
+
+    /**
+     * Encodes the position of a change as a change feed cursor.
+     * 
+     * @param change the last change returned
+     * @return the cursor of the next call
+     */
+    private static String toChangesCursor(DeviceChangeDTO change) {
+        return CursorUtil.encode(CursorDTO.builder()
+                .property(CHANGES_CURSOR)
+                .id(change.getId())
+                .value(change.getUpdatedAt().toString())
+                .build());
+    }
+
+    /**
+     * Reads the update time of a change feed cursor.
+     * 
+     * @param cursor the decoded cursor
+     * @return the update time of the last change read
+     * @throws ValidException with BAD_REQUEST if the cursor is not a change feed
+     *                        cursor
+     */
+    private static LocalDateTime getChangesCursorTime(CursorDTO cursor) {
+        if (!CHANGES_CURSOR.equals(cursor.getProperty())) {
+            throw new ValidException(INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return LocalDateTime.parse(cursor.getValue());
+        } catch (DateTimeParseException e) {
+            throw new ValidException(INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Validates if a list of devices is not empty, given a param.
      * If the list is empty, a ResourceNotFoundException is thrown with a message
@@ -188,7 +581,7 @@ public class DeviceService implements IDeviceService {
      * @param devices the list of devices to validate
      * @throws ResourceNotFoundException if the list of devices is empty
      */
-    public void validateDevicesByParam(String param, final List<Device> devices) {
+    public void validateDevicesByParam(String param, final List<?> devices) {
         if (CollectionUtils.isEmpty(devices)) {
             throw new ResourceNotFoundException("No devices found with param: " + param);
         }
@@ -0,0 +1,53 @@
+package com.moraes.device_api.api.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moraes.device_api.api.repository.IDeviceStatsRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refreshes the device_stats materialized view read by
+ * {@link DeviceService#getStats()}.
+ * <p>
+ * The refresh recomputes the counts from the device table off the request
+ * path, so reading them costs one row per brand and state. It runs
+ * concurrently: readers keep the previous counts until it commits, and the
+ * device writes are not blocked. Every instance schedules it, and an advisory
+ * lock lets only one of them refresh at a time.
+ */
+@Slf4j
+@Profile("!reactive")
+@Component
+public class DeviceStatsRefresher {
+
+    private final IDeviceStatsRepository statsRepository;
+
+    private final TransactionTemplate transaction;
+
+    public DeviceStatsRefresher(IDeviceStatsRepository statsRepository,
+            PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Refreshes the device stats, unless another instance is refreshing them.
+     * <p>
+     * A failed refresh keeps the previous counts and is retried on the next
+     * run.
+     */
+    @Scheduled(fixedDelayString = "${device-api.stats.refresh-interval:30s}")
+    public void refresh() {
+        try {
+            final Boolean refreshed = transaction.execute(status -> statsRepository.refreshStats());
+            log.debug("Device stats refreshed: {}", refreshed);
+        } catch (RuntimeException e) {
+            log.warn("refresh {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.moraes.device_api.api.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes the tombstones of the change feed once they are older than the
+ * retention, so the tombstone table grows with the delete rate, not with the
+ * history of the devices.
+ * <p>
+ * Tombstones are deleted in batches of their own transaction, so a large
+ * backlog never holds locks or a snapshot for long. A consumer that does not
+ * read the change feed for longer than the retention may miss deletes and must
+ * sync from the start again.
+ */
+@Slf4j
+@Component
+public class DeviceTombstonePurger {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final IDeviceChangeRepository changeRepository;
+
+    private final TransactionTemplate transaction;
+
+    private final Duration retention;
+
+    public DeviceTombstonePurger(IDeviceChangeRepository changeRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${device-api.changes.tombstone-retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+    }
+
+    /**
+     * Deletes batches of expired tombstones until a batch is not full or fails.
+     * <p>
+     * A failed batch is rolled back and retried on the next run.
+     * 
+     * @return the amount of deleted tombstones
+     */
+    @Scheduled(fixedDelayString = "${device-api.changes.tombstone-purge-interval:1h}")
+    public int purge() {
+        int purged = 0;
+        try {
+            Integer deleted;
+            do {
+                deleted = transaction.execute(status -> changeRepository.purgeTombstones(retention, BATCH_SIZE));
+                purged += deleted;
+            } while (deleted == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            log.warn("purge {}", e.getMessage(), e);
+        }
+        log.debug("Device tombstones purged: {}", purged);
+        return purged;
+    }
+}
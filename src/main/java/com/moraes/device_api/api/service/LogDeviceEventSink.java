@@ -0,0 +1,49 @@
+package com.moraes.device_api.api.service;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+import com.moraes.device_api.api.service.interfaces.IDeviceEventSink;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Default outbox sink: writes each event as a JSON line to the 'device-events'
+ * logger, which the logging configuration can route to its own file.
+ * <p>
+ * Events are logged at INFO. When that logger does not accept INFO, the batch
+ * fails and stays in the outbox instead of being dropped.
+ * <p>
+ * Another sink is plugged in by setting 'device-api.outbox.sink' to any other
+ * value and declaring an {@link IDeviceEventSink} bean.
+ */
+@Slf4j(topic = LogDeviceEventSink.LOGGER)
+@ConditionalOnProperty(name = "device-api.outbox.sink", havingValue = "log", matchIfMissing = true)
+@Component
+@RequiredArgsConstructor
+public class LogDeviceEventSink implements IDeviceEventSink {
+
+    public static final String LOGGER = "device-events";
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void publish(List<DeviceOutboxDTO> events) {
+        if (!log.isInfoEnabled()) {
+            throw new IllegalStateException("Logger " + LOGGER + " is not enabled for INFO");
+        }
+        for (DeviceOutboxDTO event : events) {
+            try {
+                log.info(objectMapper.writeValueAsString(event));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Device event cannot be serialized: " + event.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.moraes.device_api.api.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.ExceptionUtilDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IReactiveDeviceRepository;
+import com.moraes.device_api.api.service.interfaces.IReactiveDeviceService;
+import com.moraes.device_api.api.util.ExceptionsUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Profile("reactive")
+@Service
+@RequiredArgsConstructor
+public class ReactiveDeviceService implements IReactiveDeviceService {
+
+    private static final String CONCURRENT_MODIFICATION = "Device was modified concurrently, reload it and retry.";
+
+    private final IReactiveDeviceRepository repository;
+
+    private final TransactionalOperator transaction;
+
+    @Value("${device-api.outbox.enabled:true}")
+    private boolean outboxEnabled = true;
+
+    @Override
+    public Mono<Long> insert(DeviceDTO dto) {
+        log.debug("Inserting new device: {}", dto);
+        final DeviceStateEnum state = dto.getState() == null ? DeviceStateEnum.AVAILABLE : dto.getState();
+        return transaction.transactional(repository.insert(dto)
+                .flatMap(id -> insertOutbox(DeviceEventTypeEnum.CREATED, id, state).thenReturn(id)))
+                .doOnNext(id -> log.debug("Device inserted with ID: {}", id));
+    }
+
+    @Override
+    public Mono<DeviceListDTO> getDTOById(Long id) {
+        log.debug("Fetching device with ID: {}", id);
+        return getById(id);
+    }
+
+    @Override
+    public Mono<Void> update(Long id, DeviceDTO dto, Long expectedVersion) {
+        log.debug("Updating device with ID: {} using data: {}", id, dto);
+        return transaction.transactional(repository.updateIfAllowed(id, dto, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> getById(id)
+                        .flatMap(existing -> rejectUpdate(existing, dto, expectedVersion))
+                        .then(Mono.empty())))
+                .flatMap(state -> insertOutbox(DeviceEventTypeEnum.UPDATED, id, state)));
+    }
+
+    @Override
+    public Mono<Void> updatePartial(Long id, DeviceDTO dto, Long expectedVersion) {
+        log.debug("Partially updating device with ID: {} using data: {}", id, dto);
+        // without a state in the PATCH, the event carries the state the device kept
+        return transaction.transactional(repository.updatePartialIfAllowed(id, dto, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> getById(id)
+                        .flatMap(existing -> rejectUpdate(existing, DeviceDTO.builder()
+                                .name(dto.getName() == null ? existing.getName() : dto.getName())
+                                .brand(dto.getBrand() == null ? existing.getBrand() : dto.getBrand())
+                                .state(dto.getState())
+                                .build(), expectedVersion))
+                        .then(Mono.empty())))
+                .flatMap(state -> insertOutbox(DeviceEventTypeEnum.UPDATED, id, state)));
+    }
+
+    @Override
+    public Flux<DeviceListDTO> getAll(DeviceFilterDTO filter) {
+        log.debug("Fetching all devices with filter: {}", filter);
+        return repository.findByFilter(filter);
+    }
+
+    @Override
+    public Flux<DeviceListDTO> getByState(DeviceStateEnum state, Pageable pageable) {
+        log.debug("Fetching devices by state: {}, page: {}", state, pageable);
+        return repository.findByState(state, pageable)
+                .switchIfEmpty(Flux.error(() -> new ResourceNotFoundException("No devices found with param: " + state)));
+    }
+
+    @Override
+    public Flux<DeviceListDTO> getByBrand(String brand, Pageable pageable) {
+        log.debug("Fetching devices by brand: {}, page: {}", brand, pageable);
+        return repository.findByBrand(brand, pageable)
+                .switchIfEmpty(Flux.error(() -> new ResourceNotFoundException("No devices found with param: " + brand)));
+    }
+
+    @Override
+    public Mono<Void> delete(Long id) {
+        log.debug("Deleting device with ID: {}", id);
+        return transaction.transactional(repository.deleteIfNotInUse(id)
+                .flatMap(deleted -> deleted > 0 ? insertOutbox(DeviceEventTypeEnum.DELETED, id, null)
+                        : getById(id).flatMap(existing -> Mono.<Void>fromRunnable(() -> {
+                            ExceptionsUtil.throwValidExceptions(
+                                    ExceptionUtilDTO.builder()
+                                            .condition(!DeviceStateEnum.IN_USE.equals(existing.getState()))
+                                            .message("Device in use cannot be deleted.")
+                                            .build());
+                            throw new ValidException(CONCURRENT_MODIFICATION);
+                        }))));
+    }
+
+    /**
+     * Writes the outbox row of a device write, in its transaction, with the
+     * same events as {@link DeviceService}, for {@link DeviceOutboxRelay}.
+     * 
+     * @param type  the type of the change
+     * @param id    the ID of the changed device
+     * @param state the state written by the change, or null
+     * @return completes once the event is written, or right away when the
+     *         outbox is disabled
+     */
+    private Mono<Void> insertOutbox(DeviceEventTypeEnum type, Long id, DeviceStateEnum state) {
+        if (!outboxEnabled) {
+            return Mono.empty();
+        }
+        return repository.insertOutbox(DeviceEventDTO.builder().type(type).ids(new long[] { id }).state(state).build());
+    }
+
+    private Mono<DeviceListDTO> getById(Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Device not found with ID: " + id)));
+    }
+
+    /**
+     * Explains why a conditional update did not affect any row, with the same
+     * rules and messages as {@link DeviceService}.
+     * 
+     * @param existing        the current device
+     * @param dto             the values the update tried to apply
+     * @param expectedVersion the version expected by the client, or null
+     * @return an error with the status of the rejection
+     */
+    private Mono<Void> rejectUpdate(DeviceListDTO existing, DeviceDTO dto, Long expectedVersion) {
+        return Mono.fromRunnable(() -> {
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new PatternException("Device was modified since version " + expectedVersion + ".",
+                        HttpStatus.PRECONDITION_FAILED);
+            }
+            if (DeviceStateEnum.IN_USE.equals(existing.getState())) {
+                ExceptionsUtil.throwValidExceptions(
+                        ExceptionUtilDTO.builder()
+                                .condition(existing.getName().equals(dto.getName()))
+                                .message("Device name cannot be changed while in use.")
+                                .build(),
+                        ExceptionUtilDTO.builder()
+                                .condition(existing.getBrand().equals(dto.getBrand()))
+                                .message("Device brand cannot be changed while in use.")
+                                .build());
+            }
+            throw new ValidException(CONCURRENT_MODIFICATION);
+        });
+    }
+}
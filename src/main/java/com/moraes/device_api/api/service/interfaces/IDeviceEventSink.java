@@ -0,0 +1,19 @@
+package com.moraes.device_api.api.service.interfaces;
+
+import java.util.List;
+
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+
+public interface IDeviceEventSink {
+
+    /**
+     * Publishes a batch of device events read from the outbox.
+     * <p>
+     * Called inside the relay transaction that claimed the events: they are
+     * deleted from the outbox only if this method returns, so an exception makes
+     * the whole batch be retried. Events are delivered at least once.
+     * 
+     * @param events the events, ordered by outbox ID
+     */
+    void publish(List<DeviceOutboxDTO> events);
+}
@@ -1,14 +1,22 @@
 package com.moraes.device_api.api.service.interfaces;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import com.moraes.device_api.api.exception.PatternException;
 import com.moraes.device_api.api.exception.ResourceNotFoundException;
 import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangesDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
 
 public interface IDeviceService {
@@ -27,6 +35,21 @@ public interface IDeviceService {
      */
     Long insert(DeviceDTO dto);
 
+    /**
+     * Inserts a batch of devices into the database.
+     * <p>
+     * This method is transactional and will rollback if an exception occurs.
+     * <p>
+     * Every device is validated on its own. Invalid devices are reported with
+     * their index and validation messages and are not inserted; valid devices
+     * are written with JDBC batches.
+     * 
+     * @param dtos the DeviceDTO objects containing the devices to be inserted.
+     * @return the generated IDs, aligned with the given devices, and the errors
+     *         of the rejected ones.
+     */
+    DeviceBatchResultDTO insertBatch(List<DeviceDTO> dtos);
+
     /*
      * Retrieves a device DTO by its ID.
      * <p>
@@ -37,6 +60,8 @@ public interface IDeviceService {
      * The method will log a debug message with the given ID and the fetched device.
      * <p>
      * The method will return the device DTO mapped from the fetched device.
+     * <p>
+     * Results are cached by ID; update, updatePartial and delete evict the entry.
      * 
      * @param id the ID of the device to fetch
      * 
@@ -69,6 +94,20 @@ public interface IDeviceService {
      */
     void update(Long id, DeviceDTO dto);
 
+    /**
+     * Same as {@link #update(Long, DeviceDTO)}, only applied if the device is
+     * still at the expected version.
+     * 
+     * @param id              the ID of the device to update
+     * @param dto             the DeviceDTO object containing the device data to
+     *                        update
+     * @param expectedVersion the version the client read, or null to accept any
+     *                        version
+     * @throws PatternException with PRECONDITION_FAILED if the device version is
+     *                          not the expected one
+     */
+    void update(Long id, DeviceDTO dto, Long expectedVersion);
+
     /**
      * Deletes a device with the given ID.
      * <p>
@@ -137,13 +176,32 @@ public interface IDeviceService {
      */
     void updatePartial(Long id, DeviceDTO dto);
 
+    /**
+     * Same as {@link #updatePartial(Long, DeviceDTO)}, only applied if the device
+     * is still at the expected version.
+     * 
+     * @param id              the ID of the device to partially update
+     * @param dto             the DeviceDTO object containing the device data to
+     *                        partially update
+     * @param expectedVersion the version the client read, or null to accept any
+     *                        version
+     * @throws PatternException with PRECONDITION_FAILED if the device version is
+     *                          not the expected one
+     */
+    void updatePartial(Long id, DeviceDTO dto, Long expectedVersion);
+
     /*
      * Retrieves a list of DeviceListDTO given a device state.
      *
      * This method is transactional and will rollback if an exception occurs.
      *
+     * Devices are read as DTO projections, newest first, one page at a time when
+     * the pageable is paged.
+     *
      * @param state the device state to filter by
      * 
+     * @param pageable the page to read, or Pageable.unpaged() for every device
+     * 
      * @return a list of devices with the given state
      * 
      * @throws ResourceNotFoundException if no devices are found with the given
@@ -151,19 +209,116 @@ public interface IDeviceService {
      * 
      * @throws ValidException if the device state is invalid
      */
-    List<DeviceListDTO> getByState(DeviceStateEnum state);
+    List<DeviceListDTO> getByState(DeviceStateEnum state, Pageable pageable);
 
     /**
      * Retrieves a list of devices by their brand.
      * <p>
      * This method is transactional and will rollback if an exception occurs.
      * <p>
-     * The devices will be fetched from the database using the given brand.
-     * If the devices are not found, an empty list will be returned.
+     * The devices will be fetched from the database using the given brand, as
+     * DTO projections, newest first, one page at a time when the pageable is
+     * paged.
      * <p>
      * 
-     * @param brand the brand of the devices to fetch
+     * @param brand    the brand of the devices to fetch
+     * @param pageable the page to read, or {@link Pageable#unpaged()} for every
+     *                 device
      * @return the fetched devices
+     * @throws ResourceNotFoundException if no devices are found with the given
+     *                                   brand
+     */
+    List<DeviceListDTO> getByBrand(String brand, Pageable pageable);
+
+    /**
+     * Writes all devices matching the given filter to the given output stream as
+     * newline-delimited JSON, one DeviceListDTO per line, ordered by ID.
+     * <p>
+     * This method is transactional and read-only. Devices are streamed from a
+     * server-side cursor, so memory use does not grow with the amount of
+     * devices exported.
+     * <p>
+     * Pagination, sort and count fields of the filter are ignored.
+     * 
+     * @param filter       the device filter
+     * @param outputStream the stream to write the devices to
+     * @throws IOException if writing to the output stream fails
+     */
+    void export(DeviceFilterDTO filter, OutputStream outputStream) throws IOException;
+
+    /**
+     * Retrieves the devices with the given IDs, ordered by ID.
+     * <p>
+     * This method is transactional and read-only. Duplicated IDs are ignored and
+     * every device is read in a single round trip; IDs of missing devices are
+     * left out of the result.
+     * 
+     * @param ids the IDs of the devices to fetch
+     * @return the fetched devices
+     * @throws ValidException with BAD_REQUEST if no ID is given or more than the
+     *                        configured maximum
+     */
+    List<DeviceListDTO> getByIds(long[] ids);
+
+    /**
+     * Deletes the devices with the given IDs in a single statement.
+     * <p>
+     * This method is transactional and will rollback if an exception occurs.
+     * <p>
+     * Devices that are in use or do not exist are skipped and reported, the
+     * others are deleted. Cached devices are evicted.
+     * 
+     * @param ids the IDs of the devices to delete
+     * @return the amount of deleted devices and the skipped IDs
+     * @throws ValidException with BAD_REQUEST if no ID is given or more than the
+     *                        configured maximum
+     */
+    DeviceBulkResultDTO deleteByIds(long[] ids);
+
+    /**
+     * Sets the state of the devices with the given IDs in a single statement.
+     * <p>
+     * This method is transactional and will rollback if an exception occurs.
+     * <p>
+     * Only the state changes, so it is allowed for devices in use. Devices that
+     * do not exist are skipped and reported. Cached devices are evicted.
+     * 
+     * @param ids   the IDs of the devices to update
+     * @param state the new state
+     * @return the amount of updated devices and the skipped IDs
+     * @throws ValidException with BAD_REQUEST if no ID is given or more than the
+     *                        configured maximum
+     */
+    DeviceBulkResultDTO updateStateByIds(long[] ids, DeviceStateEnum state);
+
+    /**
+     * Returns the devices inserted, updated or deleted since a cursor.
+     * <p>
+     * Deleted devices are returned as tombstones. Changes are ordered by update
+     * time and ID, and the last one gives the cursor of the next call, so a
+     * consumer only reads what changed since its previous call. Changes of the
+     * last seconds, as configured by 'device-api.changes.settle-ms', are returned
+     * by a later call, once every transaction that wrote them has committed.
+     * 
+     * @param since the cursor returned by the previous call, or null to read
+     *              every device from the start
+     * @param size  the maximum amount of changes
+     * @return the changes and the cursor of the next call
+     * @throws ValidException with BAD_REQUEST if the cursor is malformed or the
+     *                        size is not positive or above the configured
+     *                        maximum
+     */
+    DeviceChangesDTO getChanges(String since, int size);
+
+    /**
+     * Retrieves the amount of devices of every brand and state.
+     * <p>
+     * The counts are read from a materialized view refreshed in the background
+     * every 'device-api.stats.refresh-interval', so the call reads one row per
+     * brand and state instead of the devices, and may miss the writes of the
+     * last refresh interval.
+     * 
+     * @return the counts and the time they were computed
      */
-    List<DeviceListDTO> getByBrand(String brand);
+    DeviceStatsDTO getStats();
 }
@@ -0,0 +1,111 @@
+package com.moraes.device_api.api.service.interfaces;
+
+import org.springframework.data.domain.Pageable;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link IDeviceService}, used by the reactive
+ * profile.
+ * <p>
+ * Rules, messages and statuses are the same as in {@link IDeviceService}. Errors
+ * are signalled through the returned publishers.
+ */
+public interface IReactiveDeviceService {
+
+    /**
+     * Inserts a new device.
+     * 
+     * @param dto the DeviceDTO object containing the device data to be inserted.
+     * @return the ID of the inserted device.
+     */
+    Mono<Long> insert(DeviceDTO dto);
+
+    /**
+     * Retrieves a device DTO by its ID.
+     * 
+     * @param id the ID of the device to retrieve
+     * @return the device DTO, or a {@link ResourceNotFoundException} error if the
+     *         device does not exist
+     */
+    Mono<DeviceListDTO> getDTOById(Long id);
+
+    /**
+     * Updates a device, only if it is still at the expected version.
+     * 
+     * @param id              the ID of the device to update
+     * @param dto             the DeviceDTO object containing the device data to
+     *                        update
+     * @param expectedVersion the version the client read, or null to accept any
+     *                        version
+     * @return empty on success, or a {@link ResourceNotFoundException},
+     *         {@link PatternException} (PRECONDITION_FAILED) or
+     *         {@link ValidException} error
+     */
+    Mono<Void> update(Long id, DeviceDTO dto, Long expectedVersion);
+
+    /**
+     * Partially updates a device, only if it is still at the expected version.
+     * Null values keep the current ones.
+     * 
+     * @param id              the ID of the device to partially update
+     * @param dto             the DeviceDTO object containing the device data to
+     *                        partially update
+     * @param expectedVersion the version the client read, or null to accept any
+     *                        version
+     * @return empty on success, or a {@link ResourceNotFoundException},
+     *         {@link PatternException} (PRECONDITION_FAILED) or
+     *         {@link ValidException} error
+     */
+    Mono<Void> updatePartial(Long id, DeviceDTO dto, Long expectedVersion);
+
+    /**
+     * Streams the devices matching a filter.
+     * <p>
+     * Unlike {@link IDeviceService#getAll(DeviceFilterDTO)} no total is
+     * counted: paginated filters stream one page, the others stream every
+     * matching device.
+     * 
+     * @param filter the device filter
+     * @return the matching devices
+     */
+    Flux<DeviceListDTO> getAll(DeviceFilterDTO filter);
+
+    /**
+     * Streams the devices in the given state, newest first.
+     * 
+     * @param state    the state
+     * @param pageable the page to read, or Pageable.unpaged() for every device
+     * @return the devices, or a {@link ResourceNotFoundException} error if there
+     *         is none
+     */
+    Flux<DeviceListDTO> getByState(DeviceStateEnum state, Pageable pageable);
+
+    /**
+     * Streams the devices of the given brand, newest first.
+     * 
+     * @param brand    the brand
+     * @param pageable the page to read, or Pageable.unpaged() for every device
+     * @return the devices, or a {@link ResourceNotFoundException} error if there
+     *         is none
+     */
+    Flux<DeviceListDTO> getByBrand(String brand, Pageable pageable);
+
+    /**
+     * Deletes a device that is not in use.
+     * 
+     * @param id the ID of the device to delete
+     * @return empty on success, or a {@link ResourceNotFoundException} or
+     *         {@link ValidException} error
+     */
+    Mono<Void> delete(Long id);
+}
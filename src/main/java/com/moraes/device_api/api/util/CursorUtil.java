@@ -0,0 +1,55 @@
+package com.moraes.device_api.api.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.springframework.http.HttpStatus;
+
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.CursorDTO;
+
+public final class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+    private static final String INVALID_CURSOR = "Invalid cursor.";
+
+    private CursorUtil() {
+    }
+
+    /**
+     * Encodes the sort property, the id and the sort value of the last row of a
+     * page into an opaque URL-safe token.
+     * 
+     * @param cursor the cursor to encode
+     * @return the encoded token
+     */
+    public static String encode(CursorDTO cursor) {
+        final String raw = String.join(SEPARATOR, cursor.getProperty(), String.valueOf(cursor.getId()),
+                cursor.getValue() == null ? "" : cursor.getValue());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode(CursorDTO)}.
+     * 
+     * @param token the token to decode
+     * @return the decoded cursor
+     * @throws ValidException with BAD_REQUEST if the token is malformed
+     */
+    public static CursorDTO decode(String token) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new ValidException(INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+            }
+            return CursorDTO.builder()
+                    .property(parts[0])
+                    .id(Long.valueOf(parts[1]))
+                    .value(parts[2])
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new ValidException(INVALID_CURSOR, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
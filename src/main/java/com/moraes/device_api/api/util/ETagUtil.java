@@ -0,0 +1,85 @@
+package com.moraes.device_api.api.util;
+
+import java.util.Collection;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+
+public final class ETagUtil {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final String ANY = "*";
+
+    private ETagUtil() {
+    }
+
+    /**
+     * Returns the strong ETag of a device, built from its ID and version.
+     * 
+     * @param dto the device
+     * @return the quoted ETag
+     */
+    public static String of(DeviceListDTO dto) {
+        return "\"%d-%d\"".formatted(dto.getId(), dto.getVersion());
+    }
+
+    /**
+     * Returns the strong ETag of a list of devices, built from the ID and version
+     * of every device, in order, and the given total.
+     * <p>
+     * The body is not serialized to compute it, so it is cheap enough to answer
+     * If-None-Match before writing the response.
+     * 
+     * @param dtos  the devices
+     * @param total the total amount of devices the list belongs to
+     * @return the quoted ETag
+     */
+    public static String of(Collection<DeviceListDTO> dtos, long total) {
+        long hash = mix(FNV_OFFSET_BASIS, total);
+        for (DeviceListDTO dto : dtos) {
+            hash = mix(mix(hash, dto.getId()), dto.getVersion());
+        }
+        return "\"%s\"".formatted(Long.toHexString(hash));
+    }
+
+    /**
+     * Returns the version expected by an If-Match header for the device with the
+     * given ID.
+     * 
+     * @param id      the ID of the device
+     * @param ifMatch the If-Match header, may be null
+     * @return the expected version, or null if any version is accepted
+     * @throws PatternException with PRECONDITION_FAILED if the header is not a
+     *                          strong ETag of this device
+     */
+    public static Long parseVersion(long id, String ifMatch) {
+        if (!StringUtils.hasText(ifMatch) || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        final String value = ifMatch.trim();
+        final String prefix = "\"" + id + "-";
+        if (value.startsWith(prefix) && value.endsWith("\"") && value.length() > prefix.length() + 1) {
+            try {
+                return Long.valueOf(value.substring(prefix.length(), value.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the precondition failure
+            }
+        }
+        throw new PatternException("If-Match does not match the device.", HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private static long mix(long hash, Long value) {
+        long result = hash;
+        long bits = value == null ? -1L : value;
+        for (int i = 0; i < Long.BYTES; i++) {
+            result ^= bits & 0xff;
+            result *= FNV_PRIME;
+            bits >>>= 8;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package com.moraes.device_api.api.util;
+
+import java.util.Arrays;
+
+public final class IdsUtil {
+
+    private IdsUtil() {
+    }
+
+    /**
+     * Returns the given IDs sorted and without duplicates.
+     * <p>
+     * Works on primitive arrays only, so large ID lists are never boxed. The given
+     * array is not modified.
+     * 
+     * @param ids the IDs
+     * @return a new sorted array of distinct IDs
+     */
+    public static long[] distinctSorted(long[] ids) {
+        final long[] sorted = Arrays.copyOf(ids, ids.length);
+        Arrays.sort(sorted);
+        int size = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (size == 0 || sorted[size - 1] != sorted[i]) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+    }
+
+    /**
+     * Returns the IDs of the first array that are not in the second one.
+     * 
+     * @param ids      the sorted, distinct IDs
+     * @param excluded the sorted, distinct IDs to remove
+     * @return the remaining IDs, sorted
+     */
+    public static long[] difference(long[] ids, long[] excluded) {
+        final long[] remaining = new long[ids.length];
+        int size = 0;
+        int j = 0;
+        for (long id : ids) {
+            while (j < excluded.length && excluded[j] < id) {
+                j++;
+            }
+            if (j == excluded.length || excluded[j] != id) {
+                remaining[size++] = id;
+            }
+        }
+        return Arrays.copyOf(remaining, size);
+    }
+}
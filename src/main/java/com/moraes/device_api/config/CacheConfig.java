@@ -0,0 +1,45 @@
+package com.moraes.device_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caching runs right inside the {@link DeviceMetricsAspect} on service calls,
+ * so a cache hit is timed but neither takes a {@link DatabaseLimiterAspect}
+ * permit nor opens a transaction.
+ */
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE + 1)
+@Configuration
+public class CacheConfig {
+
+    public static final String DEVICES_CACHE = "devices";
+
+    @Value("${device-api.cache.devices.spec:maximumSize=10000,expireAfterWrite=30s,recordStats}")
+    private String devicesCacheSpec = "";
+
+    /**
+     * Creates the cache manager of the application.
+     * <p>
+     * Caches are bounded Caffeine caches (W-TinyLFU eviction) configured by the
+     * 'device-api.cache.devices.spec' property, which should keep 'recordStats'
+     * so hit, miss and eviction counters are published to the actuator metrics.
+     * <p>
+     * The manager is transaction aware: puts and evictions made inside a
+     * transaction are applied only after it commits, so a rolled back update
+     * does not evict and a reader cannot cache the old row between the eviction
+     * and the commit.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        final CaffeineCacheManager cacheManager = new CaffeineCacheManager(DEVICES_CACHE);
+        cacheManager.setCacheSpecification(devicesCacheSpec);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,90 @@
+package com.moraes.device_api.config;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.moraes.device_api.api.exception.PatternException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits the amount of service calls using the database at the same time.
+ * <p>
+ * Waiting for a permit parks the calling thread on a fair semaphore, which is
+ * cheap for virtual threads, instead of queueing inside the connection pool.
+ * A call that waits longer than the acquire timeout is rejected with
+ * SERVICE_UNAVAILABLE.
+ * <p>
+ * Some connections are taken outside the limiter: by the outbox relay, the
+ * stats refresher, the tombstone purge, the slow query EXPLAIN thread and the
+ * exports. Unless 'device-api.db-limiter.permits' is set, permits are the pool
+ * size less 'device-api.db-limiter.reserved-connections', so an admitted call
+ * still gets a connection right away while they run.
+ * <p>
+ * Runs inside the cache and outside the transaction, so cache hits do not take
+ * a permit and a permit is held for the whole transaction.
+ * <p>
+ * The export is not limited: it holds its connection for as long as the client
+ * reads the stream, and would keep a permit away from short calls meanwhile.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(prefix = "device-api.db-limiter", name = "enabled", havingValue = "true")
+public class DatabaseLimiterAspect {
+
+    private final Semaphore semaphore;
+
+    private final long acquireTimeoutNanos;
+
+    @Autowired
+    public DatabaseLimiterAspect(@Value("${device-api.db-limiter.permits:0}") int permits,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${device-api.db-limiter.reserved-connections:4}") int reservedConnections,
+            @Value("${device-api.db-limiter.acquire-timeout:5s}") Duration acquireTimeout) {
+        this(permits > 0 ? permits : Math.max(poolSize - reservedConnections, 1), acquireTimeout);
+    }
+
+    public DatabaseLimiterAspect(int permits, Duration acquireTimeout) {
+        this.semaphore = new Semaphore(permits, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Around("execution(public * com.moraes.device_api.api.service.interfaces.IDeviceService.*(..))"
+            + " && !execution(* com.moraes.device_api.api.service.interfaces.IDeviceService.export(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+            log.warn("No database permit for {} after {} ms", joinPoint.getSignature().toShortString(),
+                    TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos));
+            throw new PatternException("Too many concurrent database requests, retry later.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Returns the amount of permits currently free.
+     * 
+     * @return the amount of free permits
+     */
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+}
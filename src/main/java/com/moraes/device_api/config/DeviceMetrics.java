@@ -0,0 +1,92 @@
+package com.moraes.device_api.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Names and tags of the device meters, published on /actuator/prometheus.
+ * <p>
+ * Timers and distribution summaries whose name starts with 'device' publish
+ * percentiles and histogram buckets, see 'management.metrics.distribution'.
+ * The filters tag holds the filter mask of DeviceFilterSql (brand=1, name=2,
+ * state=4, searchText=8), never the filter values, so its cardinality is
+ * bounded.
+ */
+public final class DeviceMetrics {
+
+    public static final String SERVICE_TIMER = "device.service";
+    public static final String SERVICE_RESULTS = "device.service.results";
+    public static final String QUERY_TIMER = "device.query";
+    public static final String QUERY_ROWS = "device.query.rows";
+    public static final String EVENTS_SUBSCRIBERS = "device.events.subscribers";
+    public static final String EVENTS_DROPPED = "device.events.dropped";
+    public static final String OUTBOX_RELAYED = "device.outbox.relayed";
+
+    public static final String TAG_METHOD = "method";
+    public static final String TAG_QUERY = "query";
+    public static final String TAG_FILTERS = "filters";
+    public static final String TAG_CACHE = "cache";
+    public static final String TAG_EXCEPTION = "exception";
+
+    public static final String NONE = "none";
+    public static final String CACHE_HIT = "hit";
+    public static final String CACHE_MISS = "miss";
+
+    private DeviceMetrics() {
+    }
+
+    /**
+     * Returns the value of the filters tag for a filter mask.
+     * 
+     * @param mask the filter mask
+     * @return the mask as a decimal string
+     */
+    public static String filtersTag(int mask) {
+        return Integer.toString(mask);
+    }
+
+    /**
+     * Records the duration of a repository query, and the amount of rows it
+     * read.
+     * <p>
+     * Meters are tagged by query kind and filter mask, never by filter values,
+     * so the time spent on each filter combination can be compared.
+     * 
+     * @param meterRegistry the registry of the meters
+     * @param sample        the sample started before the query
+     * @param queryKind     list, keyset, count, estimate, changes, stats or
+     *                      stats_refresh
+     * @param mask          the filter mask, 0 for queries without filters
+     * @param failure       the failure of the query, or null
+     * @param rows          the amount of rows read, or -1 if not a list
+     * @return the duration of the query, in nanoseconds
+     */
+    public static long recordQuery(MeterRegistry meterRegistry, Timer.Sample sample, String queryKind, int mask,
+            Throwable failure, int rows) {
+        final String filters = filtersTag(mask);
+        final long durationNanos = sample.stop(Timer.builder(QUERY_TIMER)
+                .description("Device filter queries")
+                .tags(TAG_QUERY, queryKind, TAG_FILTERS, filters, TAG_EXCEPTION, exceptionTag(failure))
+                .register(meterRegistry));
+        if (rows >= 0) {
+            DistributionSummary.builder(QUERY_ROWS)
+                    .description("Rows read by device list queries")
+                    .baseUnit("rows")
+                    .tags(TAG_QUERY, queryKind, TAG_FILTERS, filters)
+                    .register(meterRegistry)
+                    .record(rows);
+        }
+        return durationNanos;
+    }
+
+    /**
+     * Returns the value of the exception tag for a failure.
+     * 
+     * @param throwable the failure, or null
+     * @return the simple class name of the failure, or 'none'
+     */
+    public static String exceptionTag(Throwable throwable) {
+        return throwable == null ? NONE : throwable.getClass().getSimpleName();
+    }
+}
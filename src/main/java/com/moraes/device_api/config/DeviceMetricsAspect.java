@@ -0,0 +1,139 @@
+package com.moraes.device_api.config;
+
+import java.util.Collection;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.repository.impl.DeviceFilterSql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times every {@link com.moraes.device_api.api.service.interfaces.IDeviceService}
+ * call and records the size of its result.
+ * <p>
+ * Runs outside the cache and the {@link DatabaseLimiterAspect}, so the timer
+ * sees the latency callers see, including cache hits and the time spent
+ * waiting for a database permit. The cache tag tells hits from calls that
+ * reached the service: {@link ServiceInvocation} runs inside the cache and
+ * marks the calls it lets through.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DeviceMetricsAspect {
+
+    private static final ThreadLocal<boolean[]> INVOKED = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.moraes.device_api.api.service.interfaces.IDeviceService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        final String method = joinPoint.getSignature().getName();
+        final String filters = getFiltersTag(joinPoint.getArgs());
+        final boolean[] invoked = { false };
+        final boolean[] outer = INVOKED.get();
+        INVOKED.set(invoked);
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            final Object result = joinPoint.proceed();
+            final int size = getResultSize(result);
+            if (size >= 0) {
+                DistributionSummary.builder(DeviceMetrics.SERVICE_RESULTS)
+                        .description("Devices returned or written by a device service call")
+                        .baseUnit("devices")
+                        .tags(DeviceMetrics.TAG_METHOD, method, DeviceMetrics.TAG_FILTERS, filters)
+                        .register(meterRegistry)
+                        .record(size);
+            }
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            INVOKED.set(outer);
+            sample.stop(Timer.builder(DeviceMetrics.SERVICE_TIMER)
+                    .description("Device service calls, including the ones answered by the cache")
+                    .tags(DeviceMetrics.TAG_METHOD, method, DeviceMetrics.TAG_FILTERS, filters,
+                            DeviceMetrics.TAG_CACHE, invoked[0] ? DeviceMetrics.CACHE_MISS : DeviceMetrics.CACHE_HIT,
+                            DeviceMetrics.TAG_EXCEPTION, DeviceMetrics.exceptionTag(failure))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Marks the calls that get past the cache, for the cache tag of
+     * {@link DeviceMetricsAspect}. Calls to methods that are not cached always
+     * get past it.
+     */
+    @Aspect
+    @Component
+    @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+    public static class ServiceInvocation {
+
+        @Around("execution(public * com.moraes.device_api.api.service.interfaces.IDeviceService.*(..))")
+        public Object mark(ProceedingJoinPoint joinPoint) throws Throwable {
+            final boolean[] invoked = INVOKED.get();
+            if (invoked != null) {
+                invoked[0] = true;
+            }
+            return joinPoint.proceed();
+        }
+    }
+
+    /**
+     * Returns the filters tag of a call: the filter mask of its DeviceFilterDTO
+     * argument, or 'none' when it takes no filter.
+     * 
+     * @param args the arguments of the call
+     * @return the filters tag
+     */
+    public static String getFiltersTag(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof DeviceFilterDTO filter) {
+                return DeviceMetrics.filtersTag(DeviceFilterSql.filterMask(filter));
+            }
+        }
+        return DeviceMetrics.NONE;
+    }
+
+    /**
+     * Returns the amount of devices returned or written by a call.
+     * 
+     * @param result the result of the call
+     * @return the amount of devices, or -1 if the result does not carry devices
+     */
+    public static int getResultSize(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof DeviceListDTO) {
+            return 1;
+        }
+        if (result instanceof DeviceBatchResultDTO batch) {
+            return batch.getInserted();
+        }
+        if (result instanceof DeviceBulkResultDTO bulk) {
+            return bulk.getAffected();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,58 @@
+package com.moraes.device_api.config;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+
+/**
+ * R2DBC connection pool of the reactive profile.
+ * <p>
+ * The R2DBC auto-configuration is excluded from the application, so the
+ * servlet stack keeps a single (JPA) transaction manager; the pool is built
+ * here from the 'spring.r2dbc' properties instead. Flyway still migrates
+ * through the JDBC datasource.
+ */
+@Profile("reactive")
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class R2dbcConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties) {
+        final ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        final R2dbcProperties.Pool pool = properties.getPool();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * Runs reactive device writes and their outbox rows in one R2DBC
+     * transaction. The R2DBC transaction manager is not a bean, so
+     * {@code @Transactional} keeps resolving to the JPA one.
+     */
+    @Bean
+    public TransactionalOperator transactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,39 @@
+package com.moraes.device_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * WebFlux counterpart of {@link WebConfig}, active with the reactive profile.
+ * <p>
+ * Requests are served by Netty, which is picked explicitly because Tomcat is
+ * also on the classpath for the servlet stack.
+ */
+@Profile("reactive")
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Value("${cors.originPatterns:default}")
+    private String corsOriginPatterns = "";
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedMethods("POST", "GET", "PUT", "DELETE", "OPTIONS", "PATCH")
+                .allowedOrigins(corsOriginPatterns.split(","))
+                .allowedHeaders("*")
+                .exposedHeaders(HttpHeaders.ETAG)
+                .allowCredentials(Boolean.TRUE);
+    }
+}
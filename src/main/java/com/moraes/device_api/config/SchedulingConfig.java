@@ -0,0 +1,13 @@
+package com.moraes.device_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, such as the device outbox relay, on
+ * Spring Boot's task scheduler.
+ */
+@EnableScheduling
+@Configuration
+public class SchedulingConfig {
+}
@@ -0,0 +1,36 @@
+package com.moraes.device_api.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.moraes.device_api.api.model.dto.SlowQueryDTO;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Actuator endpoint of the slow device filter queries:
+ * GET /actuator/slowqueries lists them, newest first, and DELETE clears them.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    private final SlowQueryRecorder recorder;
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        final List<SlowQueryDTO> entries = recorder.getEntries();
+        return Map.of("recorded", recorder.getRecorded(), "queries", entries);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
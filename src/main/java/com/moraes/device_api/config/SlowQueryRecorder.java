@@ -0,0 +1,163 @@
+package com.moraes.device_api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.moraes.device_api.api.model.dto.SlowQueryDTO;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the latest device filter queries slower than a threshold in a fixed
+ * size ring buffer, read through the 'slowqueries' actuator endpoint.
+ * <p>
+ * Only SQL templates and parameter shapes are kept, never filter values. A
+ * fraction of the slow queries, 'device-api.slow-query.explain-sample-rate',
+ * can be run again with EXPLAIN (ANALYZE, BUFFERS) to keep their plan; it is 0
+ * by default since the sampled query runs twice.
+ * <p>
+ * Plans are taken on a single background thread, one at a time, so a sampled
+ * query never holds a second pool connection on the request thread. When
+ * {@value #EXPLAIN_QUEUE_SIZE} plans are already waiting, the query is recorded
+ * without its plan.
+ */
+@Slf4j
+@Component
+public class SlowQueryRecorder {
+
+    static final int EXPLAIN_QUEUE_SIZE = 16;
+
+    private final long thresholdNanos;
+
+    private final double explainSampleRate;
+
+    private final SlowQueryDTO[] entries;
+
+    private final Executor explainExecutor;
+
+    private long recorded;
+
+    @Autowired
+    public SlowQueryRecorder(@Value("${device-api.slow-query.threshold:500ms}") Duration threshold,
+            @Value("${device-api.slow-query.capacity:100}") int capacity,
+            @Value("${device-api.slow-query.explain-sample-rate:0}") double explainSampleRate) {
+        this(threshold, capacity, explainSampleRate, new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+                Thread.ofPlatform().name("slow-query-explain").daemon().factory()));
+    }
+
+    public SlowQueryRecorder(Duration threshold, int capacity, double explainSampleRate, Executor explainExecutor) {
+        this.thresholdNanos = threshold.toNanos();
+        this.explainSampleRate = explainSampleRate;
+        this.entries = new SlowQueryDTO[Math.max(capacity, 1)];
+        this.explainExecutor = explainExecutor;
+    }
+
+    /**
+     * Checks whether a query took longer than the threshold.
+     * 
+     * @param durationNanos the duration of the query
+     * @return true if the query should be recorded
+     */
+    public boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Decides whether the plan of a slow query should be sampled.
+     * 
+     * @return true for the configured fraction of the calls
+     */
+    public boolean shouldExplain() {
+        return explainSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+    }
+
+    /**
+     * Records a slow query, replacing the oldest one when the buffer is full.
+     * 
+     * @param entry the slow query
+     */
+    public synchronized void record(SlowQueryDTO entry) {
+        entries[(int) (recorded++ % entries.length)] = entry;
+    }
+
+    /**
+     * Takes the plan of a slow query on the explain thread, then records the
+     * query with it. The query is recorded without a plan when the plan fails
+     * or too many plans are already waiting.
+     * 
+     * @param entry the slow query, without its plan
+     * @param plan  takes the plan, on its own connection
+     */
+    public void recordWithPlan(SlowQueryDTO entry, Supplier<String> plan) {
+        try {
+            explainExecutor.execute(() -> {
+                String text = null;
+                try {
+                    text = plan.get();
+                } catch (RuntimeException e) {
+                    log.warn("recordWithPlan {}", e.getMessage(), e);
+                }
+                entry.setPlan(text);
+                record(entry);
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Explain queue full, slow query recorded without plan");
+            record(entry);
+        }
+    }
+
+    /**
+     * Returns the recorded slow queries, newest first.
+     * 
+     * @return the slow queries
+     */
+    public synchronized List<SlowQueryDTO> getEntries() {
+        final int size = (int) Math.min(recorded, entries.length);
+        final List<SlowQueryDTO> result = new ArrayList<>(size);
+        for (long i = recorded - 1; i >= recorded - size; i--) {
+            result.add(entries[(int) (i % entries.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the amount of slow queries recorded since the start or the last
+     * clear, including the ones already replaced.
+     * 
+     * @return the amount of slow queries
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Removes every recorded slow query.
+     */
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        recorded = 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (explainExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -2,11 +2,14 @@ package com.moraes.device_api.config;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+@Profile("!reactive")
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -56,6 +59,8 @@ public class WebConfig implements WebMvcConfigurer {
      * which defaults to 'http://localhost:8080,http://localhost:4200' if not
      * specified.
      * All headers are allowed and credentials are allowed.
+     * The ETag header is exposed so browsers can send it back in If-None-Match
+     * and If-Match.
      */
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -63,6 +68,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedMethods("POST", "GET", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedOrigins(corsOriginPatterns.split(","))
                 .allowedHeaders("*")
+                .exposedHeaders(HttpHeaders.ETAG)
                 .allowCredentials(Boolean.TRUE);
     }
 }
@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- TO_CHAR is only STABLE; this format has no locale dependent fields, so it is safe to declare IMMUTABLE
+CREATE OR REPLACE FUNCTION device_search_text(p_name VARCHAR, p_brand VARCHAR, p_state VARCHAR, p_creation_time TIMESTAMP)
+RETURNS TEXT
+LANGUAGE sql
+IMMUTABLE
+PARALLEL SAFE
+AS $$
+    SELECT p_name || ' ' || p_brand || ' ' || p_state || ' ' || TO_CHAR(p_creation_time, 'YYYY-MM-DD HH24:MI:SS')
+$$;
+
+ALTER TABLE device ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (device_search_text(name, brand, state, creation_time)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_device_name_trgm ON device USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_device_brand_trgm ON device USING GIN (brand gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_device_search_text_trgm ON device USING GIN (search_text gin_trgm_ops);
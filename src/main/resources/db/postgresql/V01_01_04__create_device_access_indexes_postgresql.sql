@@ -0,0 +1,17 @@
+-- findByBrand and the brand filter; id as second column also serves brand keyset sorting
+CREATE INDEX IF NOT EXISTS idx_device_brand_id ON device (brand, id);
+
+-- findByState and the state filter ordered by the default sort (id DESC)
+CREATE INDEX IF NOT EXISTS idx_device_state_id ON device (state, id DESC);
+
+-- state filter combined with creation time ranges and ordering
+CREATE INDEX IF NOT EXISTS idx_device_state_creation_time ON device (state, creation_time);
+
+-- devices checked out are a small, hot subset polled by findByState(IN_USE)
+CREATE INDEX IF NOT EXISTS idx_device_in_use ON device (id DESC) WHERE state = 'IN_USE';
+
+-- keyset pagination sorted by name or creation time
+CREATE INDEX IF NOT EXISTS idx_device_name_id ON device (name, id);
+CREATE INDEX IF NOT EXISTS idx_device_creation_time_id ON device (creation_time, id);
+
+ANALYZE device;
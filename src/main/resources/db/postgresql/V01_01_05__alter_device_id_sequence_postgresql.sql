@@ -0,0 +1,4 @@
+-- Device ids are allocated by Hibernate's pooled optimizer: every nextval reserves the 50 ids ending at the returned value
+ALTER SEQUENCE device_id_seq INCREMENT BY 50;
+
+SELECT setval('device_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM device));
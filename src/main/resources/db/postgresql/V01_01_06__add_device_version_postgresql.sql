@@ -0,0 +1 @@
+ALTER TABLE device ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
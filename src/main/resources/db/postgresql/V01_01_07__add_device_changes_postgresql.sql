@@ -0,0 +1,13 @@
+-- change feed: every write sets updated_at; existing rows take the migration time without a table rewrite
+ALTER TABLE device ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_device_updated_at_id ON device (updated_at, id);
+
+-- deleted devices, read by the change feed after the rows are gone
+CREATE TABLE IF NOT EXISTS device_tombstone (
+    id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_device_tombstone_deleted_at_id ON device_tombstone (deleted_at, id);
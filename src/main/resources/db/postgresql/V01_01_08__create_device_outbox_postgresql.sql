@@ -0,0 +1,12 @@
+-- transactional outbox of device events, written with each device write and drained by DeviceOutboxRelay
+CREATE TABLE IF NOT EXISTS device_outbox (
+    id BIGSERIAL NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    device_ids BIGINT[] NOT NULL,
+    state VARCHAR(10),
+    created_at TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+-- rows are deleted as fast as they are inserted: vacuum well before the default 20% of dead rows
+ALTER TABLE device_outbox SET (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
@@ -0,0 +1,8 @@
+-- device counts per brand and state, read by GET /devices/stats and refreshed by DeviceStatsRefresher
+CREATE MATERIALIZED VIEW IF NOT EXISTS device_stats AS
+SELECT brand, state, count(*) AS devices, LOCALTIMESTAMP AS refreshed_at
+FROM device
+GROUP BY brand, state;
+
+-- required by REFRESH MATERIALIZED VIEW CONCURRENTLY, which keeps the view readable while it runs
+CREATE UNIQUE INDEX IF NOT EXISTS idx_device_stats_brand_state ON device_stats (brand, state);
@@ -0,0 +1,19 @@
+-- Joins the fields with the unit separator instead of a space, so a search term can no longer
+-- match across two fields, such as 'Samsung AVAILABLE' or the brand end and the state start.
+-- Stored generated values are not recomputed when the function changes, so the column is rebuilt;
+-- dropping it also drops idx_device_search_text_trgm.
+ALTER TABLE device DROP COLUMN IF EXISTS search_text;
+
+CREATE OR REPLACE FUNCTION device_search_text(p_name VARCHAR, p_brand VARCHAR, p_state VARCHAR, p_creation_time TIMESTAMP)
+RETURNS TEXT
+LANGUAGE sql
+IMMUTABLE
+PARALLEL SAFE
+AS $$
+    SELECT p_name || E'\x1F' || p_brand || E'\x1F' || p_state || E'\x1F' || TO_CHAR(p_creation_time, 'YYYY-MM-DD HH24:MI:SS')
+$$;
+
+ALTER TABLE device ADD COLUMN search_text TEXT
+    GENERATED ALWAYS AS (device_search_text(name, brand, state, creation_time)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_device_search_text_trgm ON device USING GIN (search_text gin_trgm_ops);
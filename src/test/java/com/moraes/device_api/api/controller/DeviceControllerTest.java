@@ -1,15 +1,25 @@
 package com.moraes.device_api.api.controller;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
@@ -21,16 +31,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moraes.device_api.api.exception.PatternException;
 import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangesDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStateCountDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.service.DeviceEventBroadcaster;
 import com.moraes.device_api.api.service.interfaces.IDeviceService;
 import com.moraes.device_api.mock.MockDeviceDTO;
 
@@ -45,6 +69,9 @@ class DeviceControllerTest {
     @MockitoBean
     private IDeviceService service;
 
+    @MockitoBean
+    private DeviceEventBroadcaster eventBroadcaster;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -82,6 +109,51 @@ class DeviceControllerTest {
         response.andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("JUnit test given DeviceDTO array when insertBatch then return batch result")
+    void testGivenDeviceDTOArrayWhenInsertBatchThenReturnBatchResult() throws Exception {
+        // given
+        final var json = objectMapper.writeValueAsString(mockDeviceDTO.mockEntityList(2));
+        given(service.insertBatch(anyList())).willReturn(DeviceBatchResultDTO.builder()
+                .inserted(2).ids(List.of(1L, 2L)).errors(List.of()).build());
+        // when
+        ResultActions response = mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(2)))
+                .andExpect(jsonPath("$.ids[1]", is(2)));
+    }
+
+    @Test
+    @DisplayName("JUnit test given NDJSON body when insertBatch then return batch result")
+    void testGivenNdjsonBodyWhenInsertBatchThenReturnBatchResult() throws Exception {
+        // given
+        final var ndjson = objectMapper.writeValueAsString(mockDeviceDTO.mockEntity(1)) + "\n"
+                + objectMapper.writeValueAsString(mockDeviceDTO.mockEntity(2)) + "\n";
+        given(service.insertBatch(anyList())).willReturn(DeviceBatchResultDTO.builder()
+                .inserted(2).ids(List.of(1L, 2L)).errors(List.of()).build());
+        // when
+        ResultActions response = mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(2)));
+    }
+
+    @Test
+    @DisplayName("JUnit test given malformed NDJSON body when insertBatch then return bad request")
+    void testGivenMalformedNdjsonBodyWhenInsertBatchThenReturnBadRequest() throws Exception {
+        // when
+        ResultActions response = mockMvc.perform(post(BASE_URL + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"name\": \"x\"}\n{not json"));
+        // then
+        response.andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("JUnit test given valid ID when getById then return DeviceListDTO and status OK")
     void testGivenValidIdWhenGetByIdThenReturnDeviceListDTO() throws Exception {
@@ -97,6 +169,25 @@ class DeviceControllerTest {
                 .andExpect(jsonPath("$").exists());
     }
 
+    @Test
+    @DisplayName("JUnit test given matching If-None-Match when getById then return Not Modified")
+    void testGivenMatchingIfNoneMatchWhenGetByIdThenReturnNotModified() throws Exception {
+        // given
+        long id = 1L;
+        DeviceListDTO dto = new DeviceListDTO();
+        dto.setId(id);
+        dto.setVersion(2L);
+        given(service.getDTOById(id)).willReturn(dto);
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON));
+        // then
+        response.andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     @DisplayName("JUnit test given invalid ID when getById then return Not Found")
     void testGivenInvalidIdWhenGetByIdThenReturnNotFound() throws Exception {
@@ -125,6 +216,41 @@ class DeviceControllerTest {
         response.andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("JUnit test given If-Match when update then pass expected version")
+    void testGivenIfMatchWhenUpdateThenPassExpectedVersion() throws Exception {
+        // given
+        long id = 1L;
+        DeviceDTO dto = mockDeviceDTO.mockEntity(1);
+        String json = objectMapper.writeValueAsString(dto);
+        // when
+        ResultActions response = mockMvc.perform(put(BASE_URL + "/" + id)
+                .header(HttpHeaders.IF_MATCH, "\"1-4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+        // then
+        response.andExpect(status().isNoContent());
+        verify(service).update(eq(id), any(DeviceDTO.class), eq(4L));
+    }
+
+    @Test
+    @DisplayName("JUnit test given stale If-Match when updatePartial then return Precondition Failed")
+    void testGivenStaleIfMatchWhenUpdatePartialThenReturnPreconditionFailed() throws Exception {
+        // given
+        long id = 1L;
+        DeviceDTO dto = mockDeviceDTO.mockEntity(1);
+        String json = objectMapper.writeValueAsString(dto);
+        willThrow(new PatternException("Device was modified since version 4.", HttpStatus.PRECONDITION_FAILED))
+                .given(service).updatePartial(eq(id), any(DeviceDTO.class), eq(4L));
+        // when
+        ResultActions response = mockMvc.perform(patch(BASE_URL + "/" + id)
+                .header(HttpHeaders.IF_MATCH, "\"1-4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json));
+        // then
+        response.andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     @DisplayName("JUnit test given invalid DeviceDTO when update then return Bad Request")
     void testGivenInvalidDeviceDTOWhenUpdateThenReturnBadRequest() throws Exception {
@@ -204,7 +330,7 @@ class DeviceControllerTest {
         // given
         DeviceStateEnum state = DeviceStateEnum.IN_USE;
         List<DeviceListDTO> dtos = List.of(new DeviceListDTO());
-        given(service.getByState(state)).willReturn(dtos);
+        given(service.getByState(state, Pageable.unpaged())).willReturn(dtos);
         // when
         ResultActions response = mockMvc.perform(get(BASE_URL + "/state")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -219,7 +345,7 @@ class DeviceControllerTest {
     void testGivenNoDevicesForStateWhenGetByStateThenReturnNotFound() throws Exception {
         // given
         DeviceStateEnum state = DeviceStateEnum.IN_USE;
-        given(service.getByState(state)).willThrow(new ResourceNotFoundException("No devices found"));
+        given(service.getByState(state, Pageable.unpaged())).willThrow(new ResourceNotFoundException("No devices found"));
         // when
         ResultActions response = mockMvc.perform(get(BASE_URL + "/state")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -234,7 +360,7 @@ class DeviceControllerTest {
         // given
         final String brand = "Apple";
         List<DeviceListDTO> dtos = List.of(new DeviceListDTO());
-        given(service.getByBrand(brand)).willReturn(dtos);
+        given(service.getByBrand(brand, Pageable.unpaged())).willReturn(dtos);
         // when
         ResultActions response = mockMvc.perform(get(BASE_URL + "/brand")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -249,7 +375,7 @@ class DeviceControllerTest {
     void testGivenNoDevicesForBrandWhenGetByBrandThenReturnNotFound() throws Exception {
         // given
         final String brand = "Apple";
-        given(service.getByBrand(brand)).willThrow(new ResourceNotFoundException("No devices found"));
+        given(service.getByBrand(brand, Pageable.unpaged())).willThrow(new ResourceNotFoundException("No devices found"));
         // when
         ResultActions response = mockMvc.perform(get(BASE_URL + "/brand")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -258,6 +384,37 @@ class DeviceControllerTest {
         response.andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("JUnit test given page and size when getByBrand then read that page")
+    void testGivenPageAndSizeWhenGetByBrandThenReadThatPage() throws Exception {
+        // given
+        final String brand = "Apple";
+        List<DeviceListDTO> dtos = List.of(new DeviceListDTO());
+        given(service.getByBrand(brand, PageRequest.of(2, 50))).willReturn(dtos);
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/brand")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("brand", brand)
+                .param("page", "2")
+                .param("size", "50"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    @DisplayName("JUnit test given size zero when getByState then return Bad Request")
+    void testGivenSizeZeroWhenGetByStateThenReturnBadRequest() throws Exception {
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/state")
+                .contentType(MediaType.APPLICATION_JSON)
+                .param("state", DeviceStateEnum.IN_USE.name())
+                .param("size", "0"));
+        // then
+        response.andExpect(status().isBadRequest());
+        verify(service, never()).getByState(any(), any());
+    }
+
     @Test
     @DisplayName("JUnit test given valid ID when delete then return No Content")
     void testGivenValidIdWhenDeleteThenReturnNoContent() throws Exception {
@@ -270,4 +427,149 @@ class DeviceControllerTest {
         // then
         response.andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("JUnit test given cursor when getChanges then return changes and next cursor")
+    void testGivenCursorWhenGetChangesThenReturnChangesAndNextCursor() throws Exception {
+        // given
+        final DeviceChangesDTO dto = DeviceChangesDTO.builder()
+                .changes(List.of(DeviceChangeDTO.builder().id(3L).deleted(true).build()))
+                .nextCursor("next")
+                .build();
+        given(service.getChanges("since", 500)).willReturn(dto);
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/changes").param("since", "since"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].id", is(3)))
+                .andExpect(jsonPath("$.changes[0].deleted", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+        verify(service, never()).getDTOById(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given stats when getStats then return counts per brand and state")
+    void testGivenStatsWhenGetStatsThenReturnCountsPerBrandAndState() throws Exception {
+        // given
+        final DeviceStatsDTO dto = DeviceStatsDTO.builder()
+                .counts(List.of(DeviceStateCountDTO.builder().brand("Brand").state(DeviceStateEnum.IN_USE)
+                        .devices(4L).build()))
+                .build();
+        given(service.getStats()).willReturn(dto);
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/stats"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts[0].brand", is("Brand")))
+                .andExpect(jsonPath("$.counts[0].state", is("IN_USE")))
+                .andExpect(jsonPath("$.counts[0].devices", is(4)));
+        verify(service, never()).getDTOById(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs when getByIds then return devices with ETag")
+    void testGivenIdsWhenGetByIdsThenReturnDevicesWithETag() throws Exception {
+        // given
+        final DeviceListDTO dto = new DeviceListDTO(2L, "Name", "Brand", DeviceStateEnum.AVAILABLE, null, 0L);
+        given(service.getByIds(new long[] { 2L, 5L })).willReturn(List.of(dto));
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL).param("ids", "2,5"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].id", is(2)));
+        verify(service, never()).getAll(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs array when deleteByIds then return bulk result")
+    void testGivenIdsArrayWhenDeleteByIdsThenReturnBulkResult() throws Exception {
+        // given
+        given(service.deleteByIds(new long[] { 1L, 2L }))
+                .willReturn(DeviceBulkResultDTO.builder().affected(1).skippedIds(new long[] { 2L }).build());
+        // when
+        ResultActions response = mockMvc.perform(delete(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(1)))
+                .andExpect(jsonPath("$.skippedIds[0]", is(2)));
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs without state when updateStateByIds then return bad request")
+    void testGivenIdsWithoutStateWhenUpdateStateByIdsThenReturnBadRequest() throws Exception {
+        // when
+        ResultActions response = mockMvc.perform(patch(BASE_URL + "/state")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2]}"));
+        // then
+        response.andExpect(status().isBadRequest());
+        verify(service, never()).updateStateByIds(any(), any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs and state when updateStateByIds then return bulk result")
+    void testGivenIdsAndStateWhenUpdateStateByIdsThenReturnBulkResult() throws Exception {
+        // given
+        given(service.updateStateByIds(new long[] { 1L, 2L }, DeviceStateEnum.INACTIVE))
+                .willReturn(DeviceBulkResultDTO.builder().affected(2).skippedIds(new long[0]).build());
+        // when
+        ResultActions response = mockMvc.perform(patch(BASE_URL + "/state")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2], \"state\": \"INACTIVE\"}"));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+    }
+
+    @Test
+    @DisplayName("JUnit test given subscriber when events then open an event stream")
+    void testGivenSubscriberWhenEventsThenOpenAnEventStream() throws Exception {
+        // given
+        final SseEmitter emitter = new SseEmitter();
+        given(eventBroadcaster.subscribe()).willReturn(emitter);
+        // when
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("deleted").data("{\"type\":\"DELETED\"}"));
+        emitter.complete();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:deleted")));
+        verify(eventBroadcaster).subscribe();
+    }
+
+    @Test
+    @DisplayName("JUnit test given too many subscribers when events then return service unavailable")
+    void testGivenTooManySubscribersWhenEventsThenReturnServiceUnavailable() throws Exception {
+        // given
+        given(eventBroadcaster.subscribe()).willThrow(new PatternException("Too many device event subscribers.",
+                HttpStatus.SERVICE_UNAVAILABLE));
+        // when
+        ResultActions response = mockMvc.perform(get(BASE_URL + "/events"));
+        // then
+        response.andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("JUnit test given filter when export then stream NDJSON and status OK")
+    void testGivenFilterWhenExportThenStreamNdjson() throws Exception {
+        // given
+        final String brand = "Apple";
+        // when
+        MvcResult result = mockMvc.perform(get(BASE_URL + "/export")
+                .param("brand", brand))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+        // then
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+        verify(service).export(any(), any());
+    }
 }
@@ -0,0 +1,126 @@
+package com.moraes.device_api.api.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.service.interfaces.IReactiveDeviceService;
+import com.moraes.device_api.mock.MockDeviceDTO;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ActiveProfiles("reactive")
+@WebFluxTest(controllers = ReactiveDeviceController.class)
+class ReactiveDeviceControllerTest {
+
+    private static final String BASE_URL = "/api/v1/devices";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private IReactiveDeviceService service;
+
+    @Test
+    @DisplayName("JUnit test given DeviceDTO when insert then return created")
+    void testGivenDeviceDTOWhenInsertThenReturnCreated() {
+        given(service.insert(any(DeviceDTO.class))).willReturn(Mono.just(7L));
+
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new MockDeviceDTO().mockEntity(1))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().location(BASE_URL + "/7")
+                .expectBody(Long.class).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("JUnit test given empty DeviceDTO when insert then return bad request")
+    void testGivenEmptyDeviceDTOWhenInsertThenReturnBadRequest() {
+        webTestClient.post().uri(BASE_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("JUnit test given matching If-None-Match when getById then return Not Modified")
+    void testGivenMatchingIfNoneMatchWhenGetByIdThenReturnNotModified() {
+        final DeviceListDTO dto = new MockDeviceListDTO().mockEntity(1);
+        dto.setId(1L);
+        dto.setVersion(2L);
+        given(service.getDTOById(1L)).willReturn(Mono.just(dto));
+
+        webTestClient.get().uri(BASE_URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-2\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("JUnit test given invalid ID when getById then return Not Found")
+    void testGivenInvalidIdWhenGetByIdThenReturnNotFound() {
+        given(service.getDTOById(100L)).willReturn(Mono.error(new ResourceNotFoundException("Device not found")));
+
+        webTestClient.get().uri(BASE_URL + "/100")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.userMessages[0]").isEqualTo("Device not found");
+    }
+
+    @Test
+    @DisplayName("JUnit test given stale If-Match when updatePartial then return Precondition Failed")
+    void testGivenStaleIfMatchWhenUpdatePartialThenReturnPreconditionFailed() {
+        given(service.updatePartial(eq(1L), any(DeviceDTO.class), eq(4L))).willReturn(Mono.error(
+                new PatternException("Device was modified since version 4.", HttpStatus.PRECONDITION_FAILED)));
+
+        webTestClient.patch().uri(BASE_URL + "/1")
+                .header(HttpHeaders.IF_MATCH, "\"1-4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"state\":\"INACTIVE\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    @DisplayName("JUnit test given filter when getAll with NDJSON then stream devices")
+    void testGivenFilterWhenGetAllWithNdjsonThenStreamDevices() {
+        given(service.getAll(any())).willReturn(Flux.fromIterable(new MockDeviceListDTO().mockEntityList(3)));
+
+        webTestClient.get().uri(BASE_URL + "?brand=Apple")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(DeviceListDTO.class).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("JUnit test given valid ID when delete then return No Content")
+    void testGivenValidIdWhenDeleteThenReturnNoContent() {
+        given(service.delete(1L)).willReturn(Mono.empty());
+
+        webTestClient.delete().uri(BASE_URL + "/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
@@ -0,0 +1,130 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceChangeRepository;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class, DeviceChangeRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceChangeFeedTest {
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceCustomRepository customRepository;
+
+    @Autowired
+    private IDeviceChangeRepository changeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // every write of the test transaction is stamped with its start time
+    private LocalDateTime since;
+
+    private Device updated;
+
+    private Device deleted;
+
+    @BeforeEach
+    void setUp() {
+        since = (LocalDateTime) entityManager.createNativeQuery("SELECT LOCALTIMESTAMP", LocalDateTime.class)
+                .getSingleResult();
+        updated = repository.save(Device.builder().name("Phone").brand("Feed Brand").build());
+        deleted = repository.save(Device.builder().name("Tablet").brand("Feed Brand").build());
+        entityManager.flush();
+        customRepository.updateIfAllowed(updated.getId(), "Phone 2", "Feed Brand", DeviceStateEnum.INACTIVE, null);
+        customRepository.deleteByIdsIfNotInUse(new long[] { deleted.getId() });
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("JUnit test given updated and deleted devices when findChanges then return the row and the tombstone")
+    void testGivenUpdatedAndDeletedDevicesWhenFindChangesThenReturnTheRowAndTheTombstone() {
+        final List<DeviceChangeDTO> changes = changeRepository.findChanges(since, 0L, Duration.ZERO, 10);
+
+        assertEquals(List.of(updated.getId(), deleted.getId()), changes.stream().map(DeviceChangeDTO::getId).toList(),
+                "Changes should be ordered by update time and ID");
+        assertFalse(changes.get(0).isDeleted(), "Updated device should not be a tombstone");
+        assertEquals("Phone 2", changes.get(0).getName(), "Updated device should carry its current values");
+        assertEquals(1L, changes.get(0).getVersion(), "Updated device should carry its current version");
+        assertTrue(changes.get(1).isDeleted(), "Deleted device should be a tombstone");
+        assertNull(changes.get(1).getName(), "Tombstone should only carry the ID and the update time");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cursor at the first change when findChanges then read only the later ones")
+    void testGivenCursorAtTheFirstChangeWhenFindChangesThenReadOnlyTheLaterOnes() {
+        final DeviceChangeDTO first = changeRepository.findChanges(since, 0L, Duration.ZERO, 1).get(0);
+
+        final List<DeviceChangeDTO> changes = changeRepository.findChanges(first.getUpdatedAt(), first.getId(),
+                Duration.ZERO, 10);
+
+        assertEquals(List.of(deleted.getId()), changes.stream().map(DeviceChangeDTO::getId).toList(),
+                "Only the change after the cursor should be read");
+    }
+
+    @Test
+    @DisplayName("JUnit test given inserted device when findChanges then stamp it with the database clock")
+    void testGivenInsertedDeviceWhenFindChangesThenStampItWithTheDatabaseClock() {
+        final Device inserted = repository.saveAndFlush(Device.builder().name("Laptop").brand("Feed Brand").build());
+
+        final List<DeviceChangeDTO> changes = changeRepository.findChanges(since, 0L, Duration.ZERO, 10);
+
+        final DeviceChangeDTO change = changes.stream().filter(dto -> inserted.getId().equals(dto.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(since, change.getUpdatedAt(), "Insert should take the column default of the transaction");
+    }
+
+    @Test
+    @DisplayName("JUnit test given tombstones when purgeTombstones then delete only the expired ones")
+    void testGivenTombstonesWhenPurgeTombstonesThenDeleteOnlyTheExpiredOnes() {
+        changeRepository.purgeTombstones(Duration.ofHours(1), 10);
+        assertEquals(1L, countTombstones(), "Recent tombstone should be kept");
+        entityManager.createNativeQuery("UPDATE device_api.device_tombstone"
+                + " SET deleted_at = deleted_at - INTERVAL '2 hours' WHERE id = :id")
+                .setParameter("id", deleted.getId()).executeUpdate();
+
+        assertTrue(changeRepository.purgeTombstones(Duration.ofHours(1), 10) >= 1, "Expired tombstone should be purged");
+        assertEquals(0L, countTombstones(), "Expired tombstone should be deleted");
+    }
+
+    @Test
+    @DisplayName("JUnit test given changes inside the settle window when findChanges then leave them out")
+    void testGivenChangesInsideTheSettleWindowWhenFindChangesThenLeaveThemOut() {
+        assertTrue(changeRepository.findChanges(since, 0L, Duration.ofHours(1), 10).isEmpty(),
+                "Recent changes should be left for a later call");
+    }
+
+    private long countTombstones() {
+        return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM device_api.device_tombstone WHERE id = :id")
+                .setParameter("id", deleted.getId()).getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,113 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceConditionalWriteTest {
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceCustomRepository customRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Device available;
+
+    private Device inUse;
+
+    @BeforeEach
+    void setUp() {
+        available = repository.save(Device.builder().name("Phone").brand("Brand A").build());
+        inUse = repository.save(
+                Device.builder().name("Tablet").brand("Brand B").state(DeviceStateEnum.IN_USE).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("JUnit test given available device when updateIfAllowed then update it and increment the version")
+    void testGivenAvailableDeviceWhenUpdateIfAllowedThenUpdateItAndIncrementTheVersion() {
+        final DeviceStateEnum state = customRepository.updateIfAllowed(available.getId(), "Phone 2", "Brand C",
+                DeviceStateEnum.INACTIVE, available.getVersion());
+
+        assertEquals(DeviceStateEnum.INACTIVE, state, "Device should be updated to the new state");
+        final Device reloaded = repository.findById(available.getId()).orElseThrow();
+        assertEquals("Phone 2", reloaded.getName(), "Name should be updated");
+        assertEquals(available.getVersion() + 1, reloaded.getVersion(), "Version should be incremented");
+    }
+
+    @Test
+    @DisplayName("JUnit test given stale version when updateIfAllowed then no row is updated")
+    void testGivenStaleVersionWhenUpdateIfAllowedThenNoRowIsUpdated() {
+        assertNull(customRepository.updateIfAllowed(available.getId(), "Phone 2", "Brand C",
+                DeviceStateEnum.INACTIVE, available.getVersion() + 1), "Stale version should not be updated");
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when update rules are checked then only allowed changes apply")
+    void testGivenDeviceInUseWhenUpdateRulesAreCheckedThenOnlyAllowedChangesApply() {
+        assertNull(customRepository.updateIfAllowed(inUse.getId(), "Other", "Brand B", DeviceStateEnum.IN_USE, null),
+                "Name should not change while in use");
+        assertNull(customRepository.updatePartialIfAllowed(inUse.getId(), null, "Other Brand", null, null),
+                "Brand should not change while in use");
+        assertEquals(DeviceStateEnum.AVAILABLE,
+                customRepository.updatePartialIfAllowed(inUse.getId(), null, null, DeviceStateEnum.AVAILABLE, null),
+                "State should change while in use");
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when updatePartialIfAllowed with state only then keep name and brand")
+    void testGivenDeviceInUseWhenUpdatePartialIfAllowedWithStateOnlyThenKeepNameAndBrand() {
+        assertEquals(DeviceStateEnum.AVAILABLE,
+                customRepository.updatePartialIfAllowed(inUse.getId(), null, null, DeviceStateEnum.AVAILABLE, null),
+                "State alone should be accepted while in use");
+        final Device reloaded = repository.findById(inUse.getId()).orElseThrow();
+        assertEquals(DeviceStateEnum.AVAILABLE, reloaded.getState(), "State should be updated");
+        assertEquals(inUse.getName(), reloaded.getName(), "Name should be kept");
+        assertEquals(inUse.getBrand(), reloaded.getBrand(), "Brand should be kept");
+    }
+
+    @Test
+    @DisplayName("JUnit test given no state when updatePartialIfAllowed then return the state the device kept")
+    void testGivenNoStateWhenUpdatePartialIfAllowedThenReturnTheStateTheDeviceKept() {
+        assertEquals(DeviceStateEnum.IN_USE, customRepository.updatePartialIfAllowed(inUse.getId(), null, null, null,
+                null), "Current state should be returned");
+    }
+
+    @Test
+    @DisplayName("JUnit test given devices when deleteByIdsIfNotInUse with one ID then only the available one is deleted")
+    void testGivenDevicesWhenDeleteByIdsIfNotInUseWithOneIdThenOnlyTheAvailableOneIsDeleted() {
+        assertEquals(1, customRepository.deleteByIdsIfNotInUse(new long[] { available.getId() }).length,
+                "Available device should be deleted");
+        assertEquals(0, customRepository.deleteByIdsIfNotInUse(new long[] { inUse.getId() }).length,
+                "Device in use should not be deleted");
+        assertEquals(0, customRepository.deleteByIdsIfNotInUse(new long[] { -1L }).length,
+                "Unknown device should not be deleted");
+        assertTrue(repository.existsById(inUse.getId()), "Device in use should remain");
+    }
+}
@@ -0,0 +1,86 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceIdArrayQueryTest {
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceCustomRepository customRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long[] ids;
+
+    private long inUseId;
+
+    @BeforeEach
+    void setUp() {
+        ids = new long[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = repository.save(Device.builder().name("Device " + i).brand("Array Brand").build()).getId();
+        }
+        inUseId = repository.save(
+                Device.builder().name("Tablet").brand("Array Brand").state(DeviceStateEnum.IN_USE).build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs when findByIds then read every device ordered by ID")
+    void testGivenIdsWhenFindByIdsThenReadEveryDeviceOrderedById() {
+        final List<DeviceListDTO> response = customRepository.findByIds(new long[] { ids[0], ids[2], -1L });
+
+        assertEquals(List.of(ids[0], ids[2]), response.stream().map(DeviceListDTO::getId).toList(),
+                "Only existing devices should be read, ordered by ID");
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when deleteByIdsIfNotInUse then keep it")
+    void testGivenDeviceInUseWhenDeleteByIdsIfNotInUseThenKeepIt() {
+        final long[] deleted = customRepository.deleteByIdsIfNotInUse(new long[] { ids[0], ids[1], inUseId });
+
+        assertArrayEquals(new long[] { ids[0], ids[1] }, deleted, "Only devices not in use should be deleted");
+        assertEquals(2, repository.findAllById(List.of(ids[2], inUseId)).size(), "Other devices should remain");
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs when updateStateByIds then set the state and increment the version")
+    void testGivenIdsWhenUpdateStateByIdsThenSetTheStateAndIncrementTheVersion() {
+        final long[] updated = customRepository.updateStateByIds(new long[] { ids[1], inUseId },
+                DeviceStateEnum.INACTIVE);
+
+        assertArrayEquals(new long[] { ids[1], inUseId }, updated, "Every existing device should be updated");
+        final Device reloaded = repository.findById(inUseId).orElseThrow();
+        assertEquals(DeviceStateEnum.INACTIVE, reloaded.getState(), "State should be updated");
+        assertEquals(1L, reloaded.getVersion(), "Version should be incremented");
+    }
+}
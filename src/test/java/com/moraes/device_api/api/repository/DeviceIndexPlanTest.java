@@ -0,0 +1,184 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceFilterSql;
+import com.moraes.device_api.api.repository.impl.DeviceSqlTemplates;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * EXPLAINs the statements the repositories actually send, with the default
+ * planner settings, against the load test data set.
+ * <p>
+ * The data is seeded and analyzed inside the test transaction, so it is rolled
+ * back with it.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.moraes.device_api.api.repository.DeviceIndexPlanTest$CapturingStatementInspector")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceIndexPlanTest {
+
+    private static final int ROWS = 50_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final String script = new ClassPathResource("load/seed_devices_postgresql.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace(":rows", Integer.toString(ROWS));
+        entityManager.unwrap(Session.class).doWork(connection -> ScriptUtils.executeSqlScript(connection,
+                new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8))));
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @ParameterizedTest(name = "{index} => index={1}, description={0}")
+    @MethodSource("provideParametersTemplatesAndIndexes")
+    @DisplayName("JUnit test given SQL template when EXPLAIN then plan uses the matching index")
+    void testGivenSqlTemplateWhenExplainThenPlanUsesMatchingIndex(String description, String index, String sql,
+            DeviceFilterDTO filter, Map<String, Object> cursor, boolean paged) {
+        final Query explain = entityManager.createNativeQuery("EXPLAIN " + sql);
+        DeviceFilterSql.bindFilters(filter, DeviceFilterSql.filterMask(filter), explain::setParameter);
+        cursor.forEach(explain::setParameter);
+        if (paged) {
+            explain.setMaxResults(PAGE_SIZE);
+        }
+        @SuppressWarnings("unchecked")
+        final List<Object> plan = explain.getResultList();
+        final String planText = plan.stream().map(Object::toString).collect(Collectors.joining("\n"));
+
+        assertTrue(planText.contains(index), "Plan for " + description + " should use " + index + ":\n" + planText);
+    }
+
+    @Test
+    @DisplayName("JUnit test given findAllListByBrand when EXPLAIN then plan uses the brand index")
+    void testGivenFindAllListByBrandWhenExplainThenPlanUsesBrandIndex() {
+        repository.findAllListByBrand("Dell", PageRequest.of(0, PAGE_SIZE));
+
+        final String planText = explainLastStatement("Dell", PAGE_SIZE);
+
+        assertTrue(planText.contains("idx_device_brand_id"), "Plan should use idx_device_brand_id:\n" + planText);
+    }
+
+    @Test
+    @DisplayName("JUnit test given findAllListByState IN_USE when EXPLAIN then plan uses the partial index")
+    void testGivenFindAllListByStateInUseWhenExplainThenPlanUsesPartialIndex() {
+        repository.findAllListByState(DeviceStateEnum.IN_USE, PageRequest.of(0, PAGE_SIZE));
+
+        final String planText = explainLastStatement(DeviceStateEnum.IN_USE.name(), PAGE_SIZE);
+
+        assertTrue(planText.contains("idx_device_in_use"), "Plan should use idx_device_in_use:\n" + planText);
+    }
+
+    /**
+     * EXPLAINs the last statement Hibernate generated, binding the values in
+     * order.
+     */
+    private String explainLastStatement(Object... values) {
+        final List<String> statements = CapturingStatementInspector.STATEMENTS;
+        assertFalse(statements.isEmpty(), "A statement should have been captured");
+        final String sql = statements.get(statements.size() - 1);
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                assertEquals(values.length, statement.getParameterMetaData().getParameterCount(),
+                        "Every parameter of " + sql + " should be bound");
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                final List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    private static Stream<Arguments> provideParametersTemplatesAndIndexes() {
+        final DeviceFilterDTO none = DeviceFilterDTO.builder().build();
+        final DeviceFilterDTO dell = DeviceFilterDTO.builder().brand("Dell").build();
+        final DeviceFilterDTO inactive = DeviceFilterDTO.builder().state(DeviceStateEnum.INACTIVE).build();
+        final DeviceFilterDTO search = DeviceFilterDTO.builder().searchText("Tab S9 #4247").build();
+        return Stream.of(
+                Arguments.of("brand filter with default sort", "idx_device_brand_id",
+                        DeviceSqlTemplates.list(DeviceFilterSql.BRAND, "id", Direction.DESC), dell, Map.of(), true),
+                Arguments.of("state filter with default sort", "idx_device_state_id",
+                        DeviceSqlTemplates.list(DeviceFilterSql.STATE, "id", Direction.DESC), inactive, Map.of(),
+                        true),
+                Arguments.of("state filter sorted by creation time", "idx_device_state_creation_time",
+                        DeviceSqlTemplates.list(DeviceFilterSql.STATE, "creationTime", Direction.ASC), inactive,
+                        Map.of(), true),
+                Arguments.of("keyset by name after a cursor", "idx_device_name_id",
+                        DeviceSqlTemplates.keyset(0, "name", Direction.ASC, true), none,
+                        Map.of("cursorValue", "MacBook Pro #1003", "cursorId", 1_003L), true),
+                Arguments.of("keyset by creation time after a cursor", "idx_device_creation_time_id",
+                        DeviceSqlTemplates.keyset(0, "creationTime", Direction.DESC, true), none,
+                        Map.of("cursorValue", LocalDateTime.of(2024, 1, 1, 6, 0), "cursorId", 21_600L), true),
+                Arguments.of("searchText count", "idx_device_search_text_trgm",
+                        DeviceSqlTemplates.count(DeviceFilterSql.SEARCH_TEXT), search, Map.of(), false));
+    }
+
+    /**
+     * Records the SQL Hibernate generates, so the JPQL queries can be EXPLAINed
+     * as sent.
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.config.PostgresContainerConfig;
+import com.moraes.device_api.mock.MockDevice;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceInsertBatchingTest {
+
+    private static final int DEVICES = 5_000;
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("JUnit test given many devices when saveAll then inserts are batched and ids are pooled")
+    void testGivenManyDevicesWhenSaveAllThenInsertsAreBatchedAndIdsArePooled() {
+        final List<Device> devices = new MockDevice().mockEntityList(DEVICES);
+        devices.forEach(device -> device.setId(null));
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        repository.saveAll(devices);
+        entityManager.flush();
+
+        final long statements = statistics.getPrepareStatementCount();
+        assertEquals(DEVICES, statistics.getEntityInsertCount(), "All devices should be inserted");
+        // IDENTITY needed one statement per row; a pooled sequence and JDBC batching need about 2 per 50 rows
+        assertTrue(statements <= 2L * DEVICES / Device.ID_ALLOCATION_SIZE + 2,
+                "Statements should be batched, but were " + statements);
+    }
+}
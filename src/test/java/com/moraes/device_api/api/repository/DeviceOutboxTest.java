@@ -0,0 +1,95 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceOutboxRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceOutboxRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeviceOutboxTest {
+
+    @Autowired
+    private IDeviceOutboxRepository outboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private TransactionTemplate newTransaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            final List<DeviceOutboxDTO> pending = outboxRepository.claimOutbox(1000);
+            outboxRepository.deleteOutbox(pending.stream().mapToLong(DeviceOutboxDTO::getId).toArray());
+            for (long id = 1; id <= 3; id++) {
+                outboxRepository.insertOutbox(DeviceEventDTO.builder().type(DeviceEventTypeEnum.UPDATED)
+                        .ids(new long[] { id, id + 10 }).state(DeviceStateEnum.IN_USE).build());
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("JUnit test given outbox events when claimOutbox then read them in order with their payload")
+    void testGivenOutboxEventsWhenClaimOutboxThenReadThemInOrderWithTheirPayload() {
+        final List<DeviceOutboxDTO> events = transaction.execute(status -> outboxRepository.claimOutbox(10));
+
+        assertEquals(3, events.size(), "Every event should be claimed");
+        assertArrayEquals(new long[] { 1L, 11L }, events.get(0).getEvent().getIds(), "IDs should be read back");
+        assertEquals(DeviceStateEnum.IN_USE, events.get(0).getEvent().getState(), "State should be read back");
+        assertTrue(events.get(0).getId() < events.get(1).getId(), "Events should be ordered by outbox ID");
+    }
+
+    @Test
+    @DisplayName("JUnit test given batch claimed by another transaction when claimOutbox then skip its rows")
+    void testGivenBatchClaimedByAnotherTransactionWhenClaimOutboxThenSkipItsRows() {
+        transaction.executeWithoutResult(status -> {
+            final List<DeviceOutboxDTO> first = outboxRepository.claimOutbox(2);
+
+            final List<DeviceOutboxDTO> second = newTransaction.execute(inner -> {
+                final List<DeviceOutboxDTO> claimed = outboxRepository.claimOutbox(2);
+                outboxRepository.deleteOutbox(claimed.stream().mapToLong(DeviceOutboxDTO::getId).toArray());
+                return claimed;
+            });
+
+            assertEquals(2, first.size(), "First relay should claim a full batch");
+            assertEquals(1, second.size(), "Second relay should only claim the unlocked event");
+            assertTrue(second.get(0).getId() > first.get(1).getId(), "Claimed batches should be disjoint");
+            outboxRepository.deleteOutbox(first.stream().mapToLong(DeviceOutboxDTO::getId).toArray());
+        });
+
+        assertTrue(transaction.execute(status -> outboxRepository.claimOutbox(10)).isEmpty(),
+                "Relayed events should be deleted");
+    }
+}
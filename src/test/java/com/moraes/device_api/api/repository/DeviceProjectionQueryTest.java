@@ -0,0 +1,75 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceProjectionQueryTest {
+
+    private static final String BRAND = "Projection Brand";
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(Device.builder().name("Device " + i).brand(BRAND).state(DeviceStateEnum.INACTIVE).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("JUnit test given page request when findListByBrand then return that page newest first without managed entities")
+    void testGivenPageRequestWhenFindListByBrandThenReturnThatPageNewestFirstWithoutManagedEntities() {
+        final List<DeviceListDTO> response = repository.findListByBrand(BRAND, PageRequest.of(1, 2));
+
+        assertEquals(2, response.size(), "Response should be limited to the page size");
+        assertEquals(List.of("Device 2", "Device 1"), response.stream().map(DeviceListDTO::getName).toList(),
+                "Second page should hold the third and fourth newest devices");
+        assertEquals(0,
+                entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities(),
+                "No entity should be managed by the persistence context");
+    }
+
+    @Test
+    @DisplayName("JUnit test given unpaged when findAllListByState then return every device in the state")
+    void testGivenUnpagedWhenFindAllListByStateThenReturnEveryDeviceInTheState() {
+        final List<DeviceListDTO> response = repository.findAllListByState(DeviceStateEnum.INACTIVE,
+                Pageable.unpaged());
+
+        assertTrue(response.stream().filter(dto -> BRAND.equals(dto.getBrand())).count() >= 5,
+                "Response should contain every saved device");
+        assertTrue(response.stream().allMatch(dto -> DeviceStateEnum.INACTIVE.equals(dto.getState())),
+                "Response should contain only inactive devices");
+    }
+}
@@ -0,0 +1,74 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceSearchTextTest {
+
+    private static final String NAME = "Searchable Phone";
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceCustomRepository customRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        repository.save(Device.builder().name(NAME).brand("Search Brand").state(DeviceStateEnum.AVAILABLE).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest(name = "{index} => searchText={0}, matches={1}")
+    @MethodSource("provideParametersSearchTextsAndMatches")
+    @DisplayName("JUnit test given searchText when findByFilter then match within a single field only")
+    void testGivenSearchTextWhenFindByFilterThenMatchWithinASingleFieldOnly(String searchText, boolean matches) {
+        final List<String> names = customRepository.findByFilter(DeviceFilterDTO.builder().searchText(searchText)
+                .build()).getContent().stream().map(DeviceListDTO::getName).toList();
+
+        assertEquals(matches, names.contains(NAME),
+                "Search for '" + searchText + "' should " + (matches ? "" : "not ") + "find the device: " + names);
+    }
+
+    private static Stream<Arguments> provideParametersSearchTextsAndMatches() {
+        return Stream.of(
+                Arguments.of("searchable phone", true),
+                Arguments.of("Search Brand", true),
+                Arguments.of("AVAILABLE", true),
+                // the end of the name and the start of the brand
+                Arguments.of("Phone Search", false),
+                // the end of the brand and the state
+                Arguments.of("Brand AVAILABLE", false));
+    }
+}
@@ -0,0 +1,152 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "device-api.second-level-cache.enabled=true")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeviceSecondLevelCacheTest {
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceCustomRepository customRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    private Statistics statistics;
+
+    private String brand;
+
+    private Device device;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        brand = "Cache Brand " + System.nanoTime();
+        device = transaction.execute(status -> repository.save(Device.builder().name("Phone").brand(brand).build()));
+        final SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("JUnit test given loaded device when findById again then read it from the device region")
+    void testGivenLoadedDeviceWhenFindByIdAgainThenReadItFromTheDeviceRegion() {
+        repository.findById(device.getId()).orElseThrow();
+        final long statements = statistics.getPrepareStatementCount();
+
+        repository.findById(device.getId()).orElseThrow();
+
+        assertEquals(statements, statistics.getPrepareStatementCount(), "Second read should not reach the database");
+        assertEquals(1, statistics.getDomainDataRegionStatistics(Device.CACHE_REGION).getHitCount(),
+                "Second read should hit the device region");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached device when updateIfAllowed then next findById reads the new values")
+    void testGivenCachedDeviceWhenUpdateIfAllowedThenNextFindByIdReadsTheNewValues() {
+        repository.findById(device.getId()).orElseThrow();
+
+        transaction.executeWithoutResult(status -> customRepository.updateIfAllowed(device.getId(), "Phone 2", brand,
+                DeviceStateEnum.INACTIVE, null));
+
+        final Device reloaded = repository.findById(device.getId()).orElseThrow();
+        assertEquals("Phone 2", reloaded.getName(), "Update should evict the cached device");
+        assertEquals(device.getVersion() + 1, reloaded.getVersion(), "Version should be incremented");
+    }
+
+    @Test
+    @DisplayName("JUnit test given two cached devices when updateIfAllowed on one then keep the other in the device region")
+    void testGivenTwoCachedDevicesWhenUpdateIfAllowedOnOneThenKeepTheOtherInTheDeviceRegion() {
+        final Device other = transaction
+                .execute(status -> repository.save(Device.builder().name("Tablet").brand(brand).build()));
+        final SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        repository.findById(device.getId()).orElseThrow();
+        repository.findById(other.getId()).orElseThrow();
+
+        transaction.executeWithoutResult(status -> customRepository.updateIfAllowed(device.getId(), "Phone 2", brand,
+                DeviceStateEnum.INACTIVE, null));
+
+        assertFalse(sessionFactory.getCache().containsEntity(Device.class, device.getId()),
+                "Updated device should be evicted");
+        assertTrue(sessionFactory.getCache().containsEntity(Device.class, other.getId()),
+                "Other device should stay cached");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached brand query when read again then hit the query region")
+    void testGivenCachedBrandQueryWhenReadAgainThenHitTheQueryRegion() {
+        final List<DeviceListDTO> first = repository.findListByBrand(brand, PageRequest.of(0, 10));
+        final List<DeviceListDTO> second = repository.findListByBrand(brand, PageRequest.of(0, 10));
+
+        assertEquals(first, second, "Cached result should be equal");
+        assertEquals(1, statistics.getQueryRegionStatistics(Device.QUERY_CACHE_REGION).getHitCount(),
+                "Second query should hit the query region");
+    }
+
+    @Test
+    @DisplayName("JUnit test given unpaged when findAllListByBrand then leave the query region empty")
+    void testGivenUnpagedWhenFindAllListByBrandThenLeaveTheQueryRegionEmpty() {
+        repository.findAllListByBrand(brand, Pageable.unpaged());
+
+        assertEquals(0, statistics.getQueryRegionStatistics(Device.QUERY_CACHE_REGION).getPutCount(),
+                "Unpaged list should not be cached");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached brand query when insertBatch then next query returns the new device")
+    void testGivenCachedBrandQueryWhenInsertBatchThenNextQueryReturnsTheNewDevice() {
+        assertEquals(1, repository.findListByBrand(brand, PageRequest.of(0, 10)).size(), "Only one device expected");
+
+        transaction.executeWithoutResult(status -> customRepository.insertBatch(List.of(Device.builder()
+                .name("Tablet").brand(brand).state(DeviceStateEnum.AVAILABLE).creationTime(LocalDateTime.now())
+                .build())));
+
+        final List<DeviceListDTO> response = repository.findListByBrand(brand, PageRequest.of(0, 10));
+        assertEquals(2, response.size(), "Batch insert should invalidate the cached query");
+        assertTrue(response.stream().anyMatch(dto -> "Tablet".equals(dto.getName())),
+                "Response should contain the inserted device");
+    }
+}
@@ -0,0 +1,91 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceStateCountDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceStatsRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceStatsRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class DeviceStatsTest {
+
+    @Autowired
+    private IDeviceRepository repository;
+
+    @Autowired
+    private IDeviceStatsRepository statsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String brand;
+
+    @BeforeEach
+    void setUp() {
+        brand = "Stats Brand " + System.nanoTime();
+        repository.save(Device.builder().name("Phone").brand(brand).build());
+        repository.save(Device.builder().name("Tablet").brand(brand).build());
+        repository.save(Device.builder().name("Laptop").brand(brand).state(DeviceStateEnum.IN_USE).build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("JUnit test given new devices when refreshStats then findStats counts them per brand and state")
+    void testGivenNewDevicesWhenRefreshStatsThenFindStatsCountsThemPerBrandAndState() {
+        assertTrue(countsOf(statsRepository.findStats()).isEmpty(), "Stats should not count unrefreshed devices");
+
+        assertTrue(statsRepository.refreshStats(), "Stats should be refreshed");
+
+        final DeviceStatsDTO stats = statsRepository.findStats();
+        assertEquals(List.of(
+                DeviceStateCountDTO.builder().brand(brand).state(DeviceStateEnum.AVAILABLE).devices(2L).build(),
+                DeviceStateCountDTO.builder().brand(brand).state(DeviceStateEnum.IN_USE).devices(1L).build()),
+                countsOf(stats), "Devices should be counted per state");
+        assertNotNull(stats.getRefreshedAt(), "Refresh time should be read");
+    }
+
+    @Test
+    @DisplayName("JUnit test given refresh in progress when refreshStats then skip it")
+    void testGivenRefreshInProgressWhenRefreshStatsThenSkipIt() {
+        assertTrue(statsRepository.refreshStats(), "First refresh should take the lock");
+
+        final TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        final Boolean refreshed = newTransaction.execute(status -> statsRepository.refreshStats());
+
+        assertEquals(Boolean.FALSE, refreshed, "Second refresh should be skipped while the first transaction is open");
+    }
+
+    private List<DeviceStateCountDTO> countsOf(DeviceStatsDTO stats) {
+        return stats.getCounts().stream().filter(count -> brand.equals(count.getBrand())).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.moraes.device_api.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.impl.DeviceCustomRepository;
+import com.moraes.device_api.api.repository.impl.ReactiveDeviceRepository;
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the same filters through the JPA and the R2DBC repositories over the
+ * seeded devices and expects the same rows in the same order.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Import({ PostgresContainerConfig.class, DeviceCustomRepository.class })
+@Testcontainers(disabledWithoutDocker = true)
+class ReactiveDeviceRepositoryParityTest {
+
+    @Autowired
+    private DeviceCustomRepository customRepository;
+
+    @Autowired
+    private PostgreSQLContainer<?> postgresContainer;
+
+    private ConnectionFactory connectionFactory;
+
+    private ReactiveDeviceRepository reactiveRepository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "postgresql")
+                .option(ConnectionFactoryOptions.HOST, postgresContainer.getHost())
+                .option(ConnectionFactoryOptions.PORT, postgresContainer.getFirstMappedPort())
+                .option(ConnectionFactoryOptions.DATABASE, postgresContainer.getDatabaseName())
+                .option(ConnectionFactoryOptions.USER, postgresContainer.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, postgresContainer.getPassword())
+                .build());
+        reactiveRepository = new ReactiveDeviceRepository(DatabaseClient.create(connectionFactory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory instanceof Closeable closeable) {
+            Mono.from(closeable.close()).block();
+        }
+    }
+
+    @ParameterizedTest(name = "{index} => {1}")
+    @MethodSource("provideParametersFilters")
+    @DisplayName("JUnit test given filter when findByFilter on both stacks then return the same devices")
+    void testGivenFilterWhenFindByFilterOnBothStacksThenReturnTheSameDevices(DeviceFilterDTO filter,
+            String description) {
+        final List<DeviceListDTO> expected = customRepository.findByFilter(filter).getContent();
+        final List<DeviceListDTO> response = reactiveRepository.findByFilter(filter).collectList().block();
+
+        assertFalse(expected.isEmpty(), "Seeded devices should match " + description);
+        assertEquals(expected, response, "Both stacks should return the same devices for " + description);
+    }
+
+    private static Stream<Arguments> provideParametersFilters() {
+        return Stream.of(
+                Arguments.of(DeviceFilterDTO.builder().build(), "no filter"),
+                Arguments.of(DeviceFilterDTO.builder().brand("Apple").build(), "brand"),
+                Arguments.of(DeviceFilterDTO.builder().name(" Galaxy ").build(), "trimmed name"),
+                Arguments.of(DeviceFilterDTO.builder().state(DeviceStateEnum.AVAILABLE).direction(Direction.ASC)
+                        .build(), "state ascending"),
+                Arguments.of(DeviceFilterDTO.builder().searchText("Lenovo").build(), "searchText"),
+                Arguments.of(DeviceFilterDTO.builder().paginate(true).page(1).size(3).build(), "second page"));
+    }
+}
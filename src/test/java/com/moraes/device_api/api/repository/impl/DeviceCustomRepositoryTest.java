@@ -1,45 +1,89 @@
 package com.moraes.device_api.api.repository.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.metamodel.spi.RuntimeMetamodelsImplementor;
+import org.hibernate.persister.entity.EntityPersister;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort.Direction;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.CursorDTO;
+import com.moraes.device_api.api.model.dto.PageResultDTO;
+import com.moraes.device_api.api.model.dto.SlowQueryDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.CountStrategyEnum;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
-
+import com.moraes.device_api.api.model.enums.PaginationModeEnum;
+import com.moraes.device_api.api.util.CursorUtil;
+import com.moraes.device_api.config.DeviceMetrics;
+import com.moraes.device_api.config.SlowQueryRecorder;
+import com.moraes.device_api.mock.MockDevice;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
 
 class DeviceCustomRepositoryTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Spy
     @InjectMocks
-    private DeviceCustomRepository service;
+    private DeviceCustomRepository service = new DeviceCustomRepository(meterRegistry);
 
     @Mock
     private EntityManager entityManager;
@@ -70,8 +114,7 @@ class DeviceCustomRepositoryTest {
 
         final String resultSQL = sql.toString();
         assertEquals("SELECT * FROM item WHERE 1=1 AND item.brand = :brand AND item.name ILIKE :name" +
-                " AND (item.name ILIKE :searchText  OR item.brand ILIKE :searchText " +
-                " OR item.state ILIKE :searchText  OR TO_CHAR(item.creation_time, 'YYYY-MM-DD HH24:MI:SS') ILIKE :searchText) ",
+                " AND item.search_text ILIKE :searchText",
                 resultSQL, "SQL should contain all appended filters");
 
         assertEquals("Samsung", params.get("brand"), "Brand param should match");
@@ -134,8 +177,7 @@ class DeviceCustomRepositoryTest {
         service.applyFilters(filter, params, sql);
 
         final String resultSQL = sql.toString();
-        assertEquals("SELECT * FROM item WHERE 1=1 AND (item.name ILIKE :searchText  OR item.brand ILIKE :searchText " +
-                " OR item.state ILIKE :searchText  OR TO_CHAR(item.creation_time, 'YYYY-MM-DD HH24:MI:SS') ILIKE :searchText) ",
+        assertEquals("SELECT * FROM item WHERE 1=1 AND item.search_text ILIKE :searchText",
                 resultSQL, "SQL should contain searchText filter only");
         assertEquals("%test%", params.get("searchText"), "SearchText param should be wrapped with %");
     }
@@ -314,4 +356,473 @@ class DeviceCustomRepositoryTest {
         assertTrue(response.getContent().isEmpty(), "Page content should be empty when exception occurs");
         assertEquals(0, response.getTotalElements(), "Total elements should be zero when exception occurs");
     }
+
+    @Test
+    @DisplayName("JUnit test given keyset filter with more rows than size when findByFilter then return next cursor")
+    void testGivenKeysetFilterWithMoreRowsThanSizeWhenFindByFilterThenReturnNextCursor() {
+        final var filter = DeviceFilterDTO.builder()
+                .paginationMode(PaginationModeEnum.KEYSET)
+                .property("name")
+                .direction(Direction.ASC)
+                .size(2)
+                .build();
+        final List<DeviceListDTO> rows = new MockDeviceListDTO().mockEntityList(3);
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(rows);
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        assertTrue(response instanceof PageResultDTO, "Response should be a PageResultDTO");
+        assertEquals(2, response.getContent().size(), "Content should be limited to the page size");
+        assertTrue(response.hasNext(), "Page should have a next page");
+        final CursorDTO cursor = CursorUtil.decode(((PageResultDTO<DeviceListDTO>) response).getNextCursor());
+        assertEquals("name", cursor.getProperty(), "Cursor property should be equal");
+        assertEquals(rows.get(1).getId(), cursor.getId(), "Cursor id should be the last id of the page");
+        assertEquals(rows.get(1).getName(), cursor.getValue(), "Cursor value should be the last name of the page");
+        verify(query, times(1)).setMaxResults(3);
+        verify(query, never()).setFirstResult(anyInt());
+        verify(entityManager, times(1)).createNativeQuery(
+                contains("ORDER BY item.name ASC, item.id ASC"), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING));
+    }
+
+    @Test
+    @DisplayName("JUnit test given keyset filter with cursor when findByFilter then seek after cursor")
+    void testGivenKeysetFilterWithCursorWhenFindByFilterThenSeekAfterCursor() {
+        final String cursor = CursorUtil.encode(CursorDTO.builder().property("name").id(7L).value("Pixel").build());
+        final var filter = DeviceFilterDTO.builder()
+                .paginationMode(PaginationModeEnum.KEYSET)
+                .property("name")
+                .direction(Direction.DESC)
+                .cursor(cursor)
+                .size(2)
+                .build();
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        assertFalse(response.hasNext(), "Page should not have a next page");
+        verify(entityManager, times(1)).createNativeQuery(
+                contains("AND (item.name, item.id) < (:cursorValue, :cursorId) ORDER BY item.name DESC, item.id DESC"),
+                eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING));
+        verify(query, times(1)).setParameter("cursorId", 7L);
+        verify(query, times(1)).setParameter("cursorValue", "Pixel");
+    }
+
+    @Test
+    @DisplayName("JUnit test given keyset filter with cursor of another property when findByFilter then throw ValidException")
+    void testGivenKeysetFilterWithCursorOfAnotherPropertyWhenFindByFilterThenThrowValidException() {
+        final String cursor = CursorUtil.encode(CursorDTO.builder().property("brand").id(7L).value("Apple").build());
+        final var filter = DeviceFilterDTO.builder()
+                .paginationMode(PaginationModeEnum.KEYSET)
+                .property("name")
+                .cursor(cursor)
+                .build();
+
+        assertThrows(ValidException.class, () -> service.findByFilter(filter),
+                "Should throw ValidException when cursor does not match the sort property");
+    }
+
+    @Test
+    @DisplayName("JUnit test given unknown sort property when getSortColumn then throw ValidException")
+    void testGivenUnknownSortPropertyWhenGetSortColumnThenThrowValidException() {
+        assertThrows(ValidException.class, () -> service.getSortColumn("id; DROP TABLE device"),
+                "Should throw ValidException when sort property is unknown");
+        assertEquals("creation_time", service.getSortColumn("creationTime"), "Column should be mapped");
+    }
+
+    @Test
+    @DisplayName("JUnit test given count strategy NONE when findByFilter then probe next row without counting")
+    void testGivenCountStrategyNoneWhenFindByFilterThenProbeNextRowWithoutCounting() {
+        final var filter = DeviceFilterDTO.builder()
+                .paginate(true)
+                .countStrategy(CountStrategyEnum.NONE)
+                .page(1)
+                .size(2)
+                .build();
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.setFirstResult(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(new MockDeviceListDTO().mockEntityList(3));
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        assertEquals(2, response.getContent().size(), "Content should be limited to the page size");
+        assertTrue(response.hasNext(), "Page should have a next page");
+        assertEquals(CountStrategyEnum.NONE, ((PageResultDTO<DeviceListDTO>) response).getCountStrategy(),
+                "Count strategy should be NONE");
+        verify(query, times(1)).setMaxResults(3);
+        verify(query, times(1)).setFirstResult(2);
+        verify(entityManager, never()).createNativeQuery(anyString());
+    }
+
+    @Test
+    @DisplayName("JUnit test given count strategy ESTIMATED without filters when findByFilter then use reltuples")
+    void testGivenCountStrategyEstimatedWithoutFiltersWhenFindByFilterThenUseReltuples() throws Exception {
+        final var filter = DeviceFilterDTO.builder()
+                .paginate(true)
+                .countStrategy(CountStrategyEnum.ESTIMATED)
+                .size(2)
+                .build();
+        final ResultSet resultSet = mockEstimate(mockConnection(), "SELECT reltuples");
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.setFirstResult(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(new MockDeviceListDTO().mockEntityList(2));
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(1000L);
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        assertEquals(1000L, response.getTotalElements(), "Total should be the estimate");
+        assertEquals(CountStrategyEnum.ESTIMATED, ((PageResultDTO<DeviceListDTO>) response).getCountStrategy(),
+                "Count strategy should be ESTIMATED");
+    }
+
+    @Test
+    @DisplayName("JUnit test given paginated filter when findByFilter then time list and count separately by filter mask")
+    void testGivenPaginatedFilterWhenFindByFilterThenTimeListAndCountSeparatelyByFilterMask() {
+        final var filter = DeviceFilterDTO.builder()
+                .brand("Apple")
+                .state(DeviceStateEnum.AVAILABLE)
+                .paginate(true)
+                .size(2)
+                .build();
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(new MockDeviceListDTO().mockEntityList(2));
+        when(query.getSingleResult()).thenReturn(7L);
+
+        service.findByFilter(filter);
+
+        assertEquals(1, meterRegistry.get(DeviceMetrics.QUERY_TIMER).tag(DeviceMetrics.TAG_QUERY, "list")
+                .tag(DeviceMetrics.TAG_FILTERS, "5").timer().count(), "List query should be timed with mask 5");
+        assertEquals(1, meterRegistry.get(DeviceMetrics.QUERY_TIMER).tag(DeviceMetrics.TAG_QUERY, "count")
+                .tag(DeviceMetrics.TAG_FILTERS, "5").timer().count(), "Count query should be timed with mask 5");
+        assertEquals(2.0, meterRegistry.get(DeviceMetrics.QUERY_ROWS).tag(DeviceMetrics.TAG_QUERY, "list")
+                .summary().totalAmount(), "List rows should be recorded");
+    }
+
+    @Test
+    @DisplayName("JUnit test given filter with brand when estimateByFilter then read rows from EXPLAIN plan")
+    void testGivenFilterWithBrandWhenEstimateByFilterThenReadRowsFromExplainPlan() throws Exception {
+        final var filter = DeviceFilterDTO.builder().brand("Apple").build();
+        final Connection connection = mockConnection();
+        final ResultSet resultSet = mockEstimate(connection,
+                "EXPLAIN SELECT item.id  FROM device_api.device item WHERE 1 = 1 AND item.brand = ?");
+        final Savepoint savepoint = mock(Savepoint.class);
+
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("Seq Scan on device item  (cost=0.00..1.12 rows=3 width=8)");
+
+        assertEquals(3L, service.estimateByFilter(filter), "Estimate should be read from the plan");
+        verify(connection).releaseSavepoint(savepoint);
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing EXPLAIN when findByFilter with ESTIMATED then roll back to the savepoint and count")
+    void testGivenFailingExplainWhenFindByFilterWithEstimatedThenRollBackToTheSavepointAndCount() throws Exception {
+        final var filter = DeviceFilterDTO.builder()
+                .brand("Apple")
+                .paginate(true)
+                .countStrategy(CountStrategyEnum.ESTIMATED)
+                .size(2)
+                .build();
+        final Connection connection = mockConnection();
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        final Savepoint savepoint = mock(Savepoint.class);
+
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(connection.prepareStatement(startsWith("EXPLAIN"))).thenReturn(statement);
+        when(statement.executeQuery()).thenThrow(new SQLException("canceling statement due to statement timeout"));
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(entityManager.createNativeQuery(startsWith("SELECT COUNT"))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.setFirstResult(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(new MockDeviceListDTO().mockEntityList(2));
+        when(query.getSingleResult()).thenReturn(4L);
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        verify(connection).rollback(savepoint);
+        assertEquals(4L, response.getTotalElements(), "Total should be the exact count");
+        assertEquals(CountStrategyEnum.EXACT, ((PageResultDTO<DeviceListDTO>) response).getCountStrategy(),
+                "Count strategy should be EXACT");
+    }
+
+    @Test
+    @DisplayName("JUnit test given slow query recorder when estimateByFilter then record the SQL without filter values")
+    void testGivenSlowQueryRecorderWhenEstimateByFilterThenRecordTheSqlWithoutFilterValues() throws Exception {
+        final SlowQueryRecorder slowQueryRecorder = new SlowQueryRecorder(Duration.ZERO, 10, 0);
+        ReflectionTestUtils.setField(service, "slowQueryRecorder", slowQueryRecorder);
+        final var filter = DeviceFilterDTO.builder().brand("Apple").state(DeviceStateEnum.AVAILABLE).build();
+        final ResultSet resultSet = mockEstimate(mockConnection(), "EXPLAIN");
+
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("Seq Scan on device item  (cost=0.00..1.12 rows=3 width=8)");
+
+        service.estimateByFilter(filter);
+
+        final List<SlowQueryDTO> entries = slowQueryRecorder.getEntries();
+        assertEquals(1, entries.size(), "Estimate query should be recorded");
+        assertEquals("estimate", entries.get(0).getQuery(), "Query kind should be estimate");
+        assertEquals(5, entries.get(0).getFilters(), "Filter mask should be recorded");
+        assertTrue(entries.get(0).getSql().startsWith("EXPLAIN SELECT item.id"), "SQL template should be recorded");
+        assertEquals(Map.of("brand", "String(5)", "state", "String(9)"), entries.get(0).getParameters(),
+                "Only the shape of the parameters should be recorded");
+        assertNull(entries.get(0).getPlan(), "Plan should not be sampled");
+    }
+
+    @Test
+    @DisplayName("JUnit test given sampled slow query when countByFilter then explain it in a new read-only transaction")
+    void testGivenSampledSlowQueryWhenCountByFilterThenExplainItInANewReadOnlyTransaction() {
+        final SlowQueryRecorder slowQueryRecorder = new SlowQueryRecorder(Duration.ZERO, 10, 1, Runnable::run);
+        final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(service, "slowQueryRecorder", slowQueryRecorder);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        final var filter = DeviceFilterDTO.builder().brand("Apple").build();
+        final Query explain = mock(Query.class);
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(entityManager.createNativeQuery(startsWith("SELECT"))).thenReturn(query);
+        when(entityManager.createNativeQuery(startsWith("EXPLAIN (ANALYZE, BUFFERS)"))).thenReturn(explain);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getSingleResult()).thenReturn(3L);
+        when(query.getMaxResults()).thenReturn(Integer.MAX_VALUE);
+        when(explain.getResultList()).thenReturn(List.of("Seq Scan on device item  (actual rows=3 loops=1)"));
+
+        service.countByFilter(filter);
+
+        final ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior(),
+                "Explain should not share the caller's transaction");
+        assertTrue(definition.getValue().isReadOnly(), "Explain transaction should be read-only");
+        assertEquals("Seq Scan on device item  (actual rows=3 loops=1)", slowQueryRecorder.getEntries().get(0).getPlan(),
+                "Plan should be recorded");
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing explain when countByFilter then roll back its own transaction and record without plan")
+    void testGivenFailingExplainWhenCountByFilterThenRollBackItsOwnTransactionAndRecordWithoutPlan() {
+        final SlowQueryRecorder slowQueryRecorder = new SlowQueryRecorder(Duration.ZERO, 10, 1, Runnable::run);
+        final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        ReflectionTestUtils.setField(service, "slowQueryRecorder", slowQueryRecorder);
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        final var filter = DeviceFilterDTO.builder().brand("Apple").build();
+        final SimpleTransactionStatus status = new SimpleTransactionStatus();
+
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+        when(entityManager.createNativeQuery(startsWith("SELECT"))).thenReturn(query);
+        when(entityManager.createNativeQuery(startsWith("EXPLAIN (ANALYZE, BUFFERS)")))
+                .thenThrow(new IllegalStateException("explain failed"));
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.getSingleResult()).thenReturn(3L);
+
+        assertEquals(3, service.countByFilter(filter), "Count should not be affected by the explain");
+
+        verify(transactionManager).rollback(status);
+        assertEquals(1, slowQueryRecorder.getEntries().size(), "Slow query should still be recorded");
+        assertNull(slowQueryRecorder.getEntries().get(0).getPlan(), "Plan should be missing");
+    }
+
+    @Test
+    @DisplayName("JUnit test given no estimate when findByFilter with ESTIMATED then fall back to EXACT")
+    void testGivenNoEstimateWhenFindByFilterWithEstimatedThenFallBackToExact() throws Exception {
+        final var filter = DeviceFilterDTO.builder()
+                .paginate(true)
+                .countStrategy(CountStrategyEnum.ESTIMATED)
+                .build();
+        final ResultSet resultSet = mockEstimate(mockConnection(), "SELECT reltuples");
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenReturn(query);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+        when(query.setFirstResult(anyInt())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(-1L);
+        when(query.getSingleResult()).thenReturn(4L);
+
+        final Page<DeviceListDTO> response = service.findByFilter(filter);
+
+        assertEquals(4L, response.getTotalElements(), "Total should be the exact count");
+        assertEquals(CountStrategyEnum.EXACT, ((PageResultDTO<DeviceListDTO>) response).getCountStrategy(),
+                "Count strategy should be EXACT");
+    }
+
+    @Test
+    @DisplayName("JUnit test given devices when insertBatch then allocate pooled IDs and execute JDBC batches")
+    void testGivenDevicesWhenInsertBatchThenAllocatePooledIdsAndExecuteJdbcBatches() throws Exception {
+        final SessionImplementor session = mock(SessionImplementor.class);
+        final ActionQueue actionQueue = mock(ActionQueue.class);
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement allocateStatement = mock(PreparedStatement.class);
+        final PreparedStatement insertStatement = mock(PreparedStatement.class);
+        final ResultSet blocks = mock(ResultSet.class);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(
+                invocation -> invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        mockDevicePersister(session);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        when(connection.prepareStatement(contains("nextval"))).thenReturn(allocateStatement);
+        when(connection.prepareStatement(contains("INSERT"))).thenReturn(insertStatement);
+        when(allocateStatement.executeQuery()).thenReturn(blocks);
+        when(blocks.next()).thenReturn(true, false);
+        when(blocks.getLong(1)).thenReturn(100L);
+
+        final List<Long> response = service.insertBatch(new MockDevice().mockEntityList(3));
+
+        assertEquals(List.of(51L, 52L, 53L), response, "IDs should be taken from the pooled block");
+        verify(allocateStatement, times(1)).setInt(1, 1);
+        verify(insertStatement, times(3)).addBatch();
+        verify(insertStatement, times(2)).executeBatch();
+        verify(actionQueue, times(1)).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test given device when updateIfAllowed then bind the values and evict only that device")
+    void testGivenDeviceWhenUpdateIfAllowedThenBindTheValuesAndEvictOnlyThatDevice() throws Exception {
+        final SessionImplementor session = mock(SessionImplementor.class);
+        final ActionQueue actionQueue = mock(ActionQueue.class);
+        final Connection connection = mock(Connection.class);
+        final PreparedStatement statement = mock(PreparedStatement.class);
+
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(
+                invocation -> invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        final CacheImplementor cache = mockDevicePersister(session);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(DeviceStateEnum.INACTIVE.name());
+
+        assertEquals(DeviceStateEnum.INACTIVE, service.updateIfAllowed(7L, "Phone", "Brand", DeviceStateEnum.INACTIVE,
+                3L), "Updated state should be returned");
+
+        verify(statement).setString(1, "Phone");
+        verify(statement).setString(3, DeviceStateEnum.INACTIVE.name());
+        verify(statement).setLong(4, 7L);
+        verify(statement).setObject(5, 3L, Types.BIGINT);
+        verify(cache).evictEntityData(Device.class, 7L);
+        verify(cache, never()).evictEntityData(Device.class);
+        verify(actionQueue).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+    /**
+     * Stubs the session of the entity manager to run JDBC work on a mocked
+     * connection.
+     * 
+     * @return the mocked connection
+     * @throws SQLException never, declared by the stubbed connection
+     */
+    private Connection mockConnection() throws SQLException {
+        final Session session = mock(Session.class);
+        final Connection connection = mock(Connection.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.doReturningWork(any())).thenAnswer(
+                invocation -> invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        return connection;
+    }
+
+    /**
+     * Stubs the estimate statement of a mocked connection.
+     * 
+     * @param connection the mocked connection
+     * @param sqlPrefix  the start of the SQL of the estimate statement
+     * @return the mocked result set of the statement
+     * @throws SQLException never, declared by the stubbed statement
+     */
+    private static ResultSet mockEstimate(Connection connection, String sqlPrefix) throws SQLException {
+        final PreparedStatement statement = mock(PreparedStatement.class);
+        final ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(startsWith(sqlPrefix))).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        return resultSet;
+    }
+
+    /**
+     * Stubs the session factory of a mocked session with a device persister
+     * and a second-level cache without query cache.
+     * 
+     * @param session the mocked session
+     * @return the mocked second-level cache
+     */
+    private static CacheImplementor mockDevicePersister(SessionImplementor session) {
+        final SessionFactoryImplementor factory = mock(SessionFactoryImplementor.class);
+        final RuntimeMetamodelsImplementor runtimeMetamodels = mock(RuntimeMetamodelsImplementor.class);
+        final MappingMetamodelImplementor metamodel = mock(MappingMetamodelImplementor.class);
+        final EntityPersister persister = mock(EntityPersister.class);
+        when(session.getFactory()).thenReturn(factory);
+        when(factory.getMappingMetamodel()).thenReturn(metamodel);
+        when(factory.getRuntimeMetamodels()).thenReturn(runtimeMetamodels);
+        when(runtimeMetamodels.getMappingMetamodel()).thenReturn(metamodel);
+        when(metamodel.getEntityDescriptor(Device.class)).thenReturn(persister);
+        when(persister.getEntityName()).thenReturn(Device.class.getName());
+        when(persister.getQuerySpaces()).thenReturn(new String[] { "device" });
+        final SessionFactoryOptions options = mock(SessionFactoryOptions.class);
+        final CacheImplementor cache = mock(CacheImplementor.class);
+        when(factory.getSessionFactoryOptions()).thenReturn(options);
+        when(factory.getCache()).thenReturn(cache);
+        return cache;
+    }
+
+    @Test
+    @DisplayName("JUnit test given two filters with the same conditions and sort when listByFilter then reuse the same SQL")
+    void testGivenTwoFiltersWithTheSameConditionsAndSortWhenListByFilterThenReuseTheSameSql() {
+        final var first = DeviceFilterDTO.builder().brand("Apple").property("creationTime")
+                .direction(Direction.ASC).build();
+        final var second = DeviceFilterDTO.builder().brand("Samsung").property("creationTime")
+                .direction(Direction.ASC).build();
+        final List<String> statements = new ArrayList<>();
+
+        when(entityManager.createNativeQuery(anyString(), eq(DeviceListDTO.DEVICE_LIST_DTO_MAPPING)))
+                .thenAnswer(invocation -> {
+                    statements.add(invocation.getArgument(0));
+                    return query;
+                });
+        when(query.getResultList()).thenReturn(List.of());
+
+        service.listByFilter(first);
+        service.listByFilter(second);
+
+        assertEquals(2, statements.size(), "Both filters should create a query");
+        assertSame(statements.get(0), statements.get(1), "Both filters should reuse the same SQL string");
+        assertTrue(statements.get(0).endsWith("AND item.brand = :brand ORDER BY item.creation_time ASC"),
+                "SQL should order by the whitelisted column");
+        verify(query, times(1)).setParameter("brand", "Apple");
+        verify(query, times(1)).setParameter("brand", "Samsung");
+    }
+
+    @Test
+    @DisplayName("JUnit test given unknown sort property when findByFilter then throw ValidException")
+    void testGivenUnknownSortPropertyWhenFindByFilterThenThrowValidException() {
+        final var filter = DeviceFilterDTO.builder().property("name; DROP TABLE device").build();
+
+        assertThrows(ValidException.class, () -> service.findByFilter(filter),
+                "Should throw ValidException when sort property is unknown");
+        verify(entityManager, never()).createNativeQuery(anyString(), anyString());
+    }
 }
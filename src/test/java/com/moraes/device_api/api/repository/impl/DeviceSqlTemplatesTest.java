@@ -0,0 +1,63 @@
+package com.moraes.device_api.api.repository.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
+
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+
+class DeviceSqlTemplatesTest {
+
+    @Test
+    @DisplayName("JUnit test given filter with brand and state when filterMask then set both bits")
+    void testGivenFilterWithBrandAndStateWhenFilterMaskThenSetBothBits() {
+        final var filter = DeviceFilterDTO.builder().brand("Apple").state(DeviceStateEnum.IN_USE).name(" ").build();
+
+        assertEquals(DeviceFilterSql.BRAND | DeviceFilterSql.STATE, DeviceFilterSql.filterMask(filter),
+                "Mask should have the brand and state bits only");
+    }
+
+    @Test
+    @DisplayName("JUnit test given mask and sort when list then return the cached statement")
+    void testGivenMaskAndSortWhenListThenReturnTheCachedStatement() {
+        final int mask = DeviceFilterSql.NAME | DeviceFilterSql.SEARCH_TEXT;
+
+        final String response = DeviceSqlTemplates.list(mask, "brand", Direction.DESC);
+
+        assertSame(response, DeviceSqlTemplates.list(mask, "brand", Direction.DESC),
+                "Same mask and sort should return the same instance");
+        assertEquals(DeviceFilterSql.LIST_SELECT + DeviceFilterSql.FROM_WHERE
+                + " AND item.name ILIKE :name AND item.search_text ILIKE :searchText ORDER BY item.brand DESC",
+                response, "Statement should be equal");
+    }
+
+    @Test
+    @DisplayName("JUnit test given sort by id when keyset with cursor then seek by id only")
+    void testGivenSortByIdWhenKeysetWithCursorThenSeekByIdOnly() {
+        final String response = DeviceSqlTemplates.keyset(0, "id", Direction.ASC, true);
+
+        assertEquals(DeviceFilterSql.LIST_SELECT + DeviceFilterSql.FROM_WHERE
+                + " AND item.id > :cursorId ORDER BY item.id ASC", response, "Statement should be equal");
+    }
+
+    @Test
+    @DisplayName("JUnit test given column name of creationTime when list then return the creationTime statement")
+    void testGivenColumnNameOfCreationTimeWhenListThenReturnTheCreationTimeStatement() {
+        assertSame(DeviceSqlTemplates.list(0, "creationTime", Direction.ASC),
+                DeviceSqlTemplates.list(0, "creation_time", Direction.ASC),
+                "Column name should be accepted as an alias of the property");
+    }
+
+    @Test
+    @DisplayName("JUnit test given unknown sort property when list then throw ValidException")
+    void testGivenUnknownSortPropertyWhenListThenThrowValidException() {
+        assertThrows(ValidException.class, () -> DeviceSqlTemplates.list(0, "search_text", Direction.ASC),
+                "Should throw ValidException when the column cannot be sorted by");
+    }
+}
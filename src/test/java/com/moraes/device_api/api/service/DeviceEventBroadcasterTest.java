@@ -0,0 +1,99 @@
+package com.moraes.device_api.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeviceEventBroadcasterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("JUnit test given maximum subscribers when subscribe then throw service unavailable")
+    void testGivenMaximumSubscribersWhenSubscribeThenThrowServiceUnavailable() {
+        final DeviceEventBroadcaster broadcaster = new DeviceEventBroadcaster(1, 10, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), meterRegistry);
+
+        assertNotNull(broadcaster.subscribe(), "First subscriber should get a stream");
+        final PatternException exception = assertThrows(PatternException.class, broadcaster::subscribe,
+                "Does Not Throw");
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus(), "Status should be SERVICE_UNAVAILABLE");
+        assertEquals(1.0, meterRegistry.get(DeviceMetrics.EVENTS_SUBSCRIBERS).gauge().value(),
+                "One subscriber should be counted");
+    }
+
+    @Test
+    @DisplayName("JUnit test given concurrent subscribes when subscribe then never exceed the maximum subscribers")
+    void testGivenConcurrentSubscribesWhenSubscribeThenNeverExceedTheMaximumSubscribers() throws Exception {
+        final DeviceEventBroadcaster broadcaster = new DeviceEventBroadcaster(5, 10, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), meterRegistry);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger opened = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        broadcaster.subscribe();
+                        opened.incrementAndGet();
+                    } catch (PatternException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(5, opened.get(), "Only the maximum amount of streams should be opened");
+        assertEquals(45, rejected.get(), "Other subscribers should be rejected");
+        assertEquals(5, broadcaster.getSubscriberCount(), "Open streams should be counted once");
+    }
+
+    @Test
+    @DisplayName("JUnit test given subscriber falling behind when onDeviceEvent then drop it without blocking")
+    void testGivenSubscriberFallingBehindWhenOnDeviceEventThenDropItWithoutBlocking() {
+        final DeviceEventBroadcaster broadcaster = new DeviceEventBroadcaster(10, 1, Duration.ofMinutes(1),
+                Duration.ofMinutes(1), meterRegistry);
+        broadcaster.subscribe();
+        final DeviceEventDTO event = DeviceEventDTO.builder().type(DeviceEventTypeEnum.UPDATED)
+                .ids(new long[] { 1L }).state(DeviceStateEnum.IN_USE).build();
+
+        // offers are far faster than sends, so a queue of one overflows long before the loop ends
+        for (int i = 0; i < 100_000 && broadcaster.getSubscriberCount() > 0; i++) {
+            broadcaster.onDeviceEvent(event);
+        }
+
+        assertEquals(0, broadcaster.getSubscriberCount(), "Subscriber should be dropped");
+        assertTrue(meterRegistry.get(DeviceMetrics.EVENTS_DROPPED).counter().count() >= 1,
+                "Drop should be counted");
+    }
+}
@@ -0,0 +1,115 @@
+package com.moraes.device_api.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceOutboxDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+import com.moraes.device_api.api.service.interfaces.IDeviceEventSink;
+import com.moraes.device_api.config.DeviceMetrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeviceOutboxRelayTest {
+
+    private IDeviceOutboxRepository outboxRepository;
+
+    private IDeviceEventSink sink;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeviceOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(IDeviceOutboxRepository.class);
+        sink = mock(IDeviceEventSink.class);
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new DeviceOutboxRelay(outboxRepository, sink, mock(PlatformTransactionManager.class), 2,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("JUnit test given full batches when relay then relay until a batch is not full")
+    void testGivenFullBatchesWhenRelayThenRelayUntilABatchIsNotFull() {
+        when(outboxRepository.claimOutbox(2)).thenReturn(List.of(outbox(1L), outbox(2L)), List.of(outbox(3L)));
+
+        relay.relay();
+
+        verify(outboxRepository, times(2)).claimOutbox(2);
+        verify(sink, times(2)).publish(any());
+        verify(outboxRepository).deleteOutbox(new long[] { 1L, 2L });
+        verify(outboxRepository).deleteOutbox(new long[] { 3L });
+        assertEquals(3.0, meterRegistry.get(DeviceMetrics.OUTBOX_RELAYED).counter().count(),
+                "Every event should be counted");
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing sink when relayBatch then keep the events in the outbox")
+    void testGivenFailingSinkWhenRelayBatchThenKeepTheEventsInTheOutbox() {
+        final List<DeviceOutboxDTO> events = List.of(outbox(1L));
+        when(outboxRepository.claimOutbox(2)).thenReturn(events);
+        doThrow(new IllegalStateException("Sink unavailable")).when(sink).publish(events);
+
+        assertEquals(0, relay.relayBatch(), "No event should be relayed");
+        verify(outboxRepository, never()).deleteOutbox(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given log sink with its logger off when relayBatch then keep the events in the outbox")
+    void testGivenLogSinkWithItsLoggerOffWhenRelayBatchThenKeepTheEventsInTheOutbox() {
+        final Logger logger = (Logger) LoggerFactory.getLogger(LogDeviceEventSink.LOGGER);
+        final Level level = logger.getLevel();
+        final LogDeviceEventSink logSink = new LogDeviceEventSink(new ObjectMapper());
+        final DeviceOutboxRelay logRelay = new DeviceOutboxRelay(outboxRepository, logSink,
+                mock(PlatformTransactionManager.class), 2, meterRegistry);
+        when(outboxRepository.claimOutbox(2)).thenReturn(List.of(outbox(1L)));
+        logger.setLevel(Level.OFF);
+        try {
+            assertThrows(IllegalStateException.class, () -> logSink.publish(List.of(outbox(1L))),
+                    "Sink should fail when it cannot deliver");
+            assertEquals(0, logRelay.relayBatch(), "No event should be relayed");
+            verify(outboxRepository, never()).deleteOutbox(any());
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test given log sink when relayBatch then delete the logged events")
+    void testGivenLogSinkWhenRelayBatchThenDeleteTheLoggedEvents() {
+        final DeviceOutboxRelay logRelay = new DeviceOutboxRelay(outboxRepository,
+                new LogDeviceEventSink(new ObjectMapper()), mock(PlatformTransactionManager.class), 2, meterRegistry);
+        when(outboxRepository.claimOutbox(2)).thenReturn(List.of(outbox(1L)));
+
+        assertEquals(1, logRelay.relayBatch(), "Event should be relayed");
+        verify(outboxRepository).deleteOutbox(new long[] { 1L });
+    }
+
+    private static DeviceOutboxDTO outbox(long id) {
+        return DeviceOutboxDTO.builder()
+                .id(id)
+                .event(DeviceEventDTO.builder().type(DeviceEventTypeEnum.DELETED).ids(new long[] { id }).build())
+                .build();
+    }
+}
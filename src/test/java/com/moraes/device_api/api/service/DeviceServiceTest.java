@@ -1,17 +1,29 @@
 package com.moraes.device_api.api.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -22,27 +34,51 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.moraes.device_api.api.exception.PatternException;
 import com.moraes.device_api.api.exception.ResourceNotFoundException;
 import com.moraes.device_api.api.exception.ValidException;
 import com.moraes.device_api.api.mapper.IDeviceMapper;
 import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.CursorDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBatchResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceBulkResultDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangeDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceChangesDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceEventDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
 import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStateCountDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceStatsDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
 import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
 import com.moraes.device_api.api.repository.IDeviceCustomRepository;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+import com.moraes.device_api.api.repository.IDeviceStatsRepository;
 import com.moraes.device_api.api.repository.IDeviceRepository;
+import com.moraes.device_api.api.util.CursorUtil;
 import com.moraes.device_api.mock.MockDevice;
 import com.moraes.device_api.mock.MockDeviceDTO;
 import com.moraes.device_api.mock.MockDeviceListDTO;
 
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
 class DeviceServiceTest {
 
     @Spy
@@ -55,9 +91,27 @@ class DeviceServiceTest {
     @Mock
     private IDeviceCustomRepository customRepository;
 
+    @Mock
+    private IDeviceChangeRepository changeRepository;
+
+    @Mock
+    private IDeviceOutboxRepository outboxRepository;
+
+    @Mock
+    private IDeviceStatsRepository statsRepository;
+
     @Mock
     private IDeviceMapper mapper;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private MockDevice input;
     private MockDeviceDTO mockDeviceDTO;
     private MockDeviceListDTO mockDeviceListDTO;
@@ -90,6 +144,40 @@ class DeviceServiceTest {
         assertEquals(id, response, "ID should be equal " + id);
     }
 
+    @Test
+    @DisplayName("JUnit test given valid and invalid DeviceDTOs when insertBatch then insert valid and report invalid")
+    void testGivenValidAndInvalidDeviceDTOsWhenInsertBatchThenInsertValidAndReportInvalid() {
+        final var valid = mockDeviceDTO.mockEntity(1);
+        final var invalid = DeviceDTO.builder().name("Name").brand("Brand").build();
+        final var dtos = Arrays.asList(valid, invalid, null, valid);
+
+        when(mapper.toEntity(valid)).thenReturn(input.mockEntity(1), input.mockEntity(2));
+        when(customRepository.insertBatch(anyList())).thenReturn(List.of(10L, 11L));
+
+        final DeviceBatchResultDTO response = service.insertBatch(dtos);
+
+        assertEquals(2, response.getInserted(), "Inserted should be equal 2");
+        assertEquals(10L, response.getIds().get(0), "First ID should be equal 10");
+        assertNull(response.getIds().get(1), "Rejected device should not have an ID");
+        assertNull(response.getIds().get(2), "Rejected device should not have an ID");
+        assertEquals(11L, response.getIds().get(3), "Last ID should be equal 11");
+        assertEquals(2, response.getErrors().size(), "Errors size should be equal 2");
+        assertEquals(1, response.getErrors().get(0).getIndex(), "Error index should be equal 1");
+        assertEquals("Field \"state\" must be provided.", response.getErrors().get(0).getMessages().get(0),
+                "Error message should name the field");
+        assertEquals(2, response.getErrors().get(1).getIndex(), "Error index should be equal 2");
+    }
+
+    @Test
+    @DisplayName("JUnit test given only invalid DeviceDTOs when insertBatch then does not call repository")
+    void testGivenOnlyInvalidDeviceDTOsWhenInsertBatchThenDoesNotCallRepository() {
+        final DeviceBatchResultDTO response = service.insertBatch(List.of(new DeviceDTO()));
+
+        assertEquals(0, response.getInserted(), "Inserted should be equal 0");
+        assertEquals(1, response.getErrors().size(), "Errors size should be equal 1");
+        verify(customRepository, times(0)).insertBatch(any());
+    }
+
     @Test
     @DisplayName("JUnit test given Device ID when getById then return Device")
     void testGivenDeviceIDWhenGetByIdThenReturnDevice() {
@@ -133,24 +221,97 @@ class DeviceServiceTest {
     @DisplayName("JUnit test given Device ID and DeviceDTO when update then update Device")
     void testGivenDeviceIDAndDeviceDTOWhenUpdateThenUpdateDevice() {
         final var dto = mockDeviceDTO.mockEntity(1);
-        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(customRepository.updateIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), null))
+                .thenReturn(dto.getState());
 
         assertDoesNotThrow(() -> service.update(id, dto), "Should not throw exception");
-        InOrder inOrder = inOrder(service, mapper, repository);
 
-        inOrder.verify(service).validateBeforeUpdate(entity, dto);
-        inOrder.verify(mapper).updateFromDeviceDTO(dto, entity);
-        inOrder.verify(repository).save(entity);
+        verify(customRepository).updateIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), null);
+        verify(repository, never()).findById(id);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given unknown Device ID when update then throw ResourceNotFoundException")
+    void testGivenUnknownDeviceIDWhenUpdateThenThrowResourceNotFoundException() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        when(repository.findById(id)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.update(id, dto),
+                "Should throw ResourceNotFoundException when no row was updated and the device does not exist");
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when update changing name then throw ValidException")
+    void testGivenDeviceInUseWhenUpdateChangingNameThenThrowValidException() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        entity.setState(DeviceStateEnum.IN_USE);
+        entity.setBrand(dto.getBrand());
+        entity.setName("Other Name");
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+        final ValidException exception = assertThrows(ValidException.class, () -> service.update(id, dto),
+                "Should throw ValidException when no row was updated");
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus(), "Status should be CONFLICT");
+        assertEquals("Device name cannot be changed while in use.", exception.getErrs().get(0),
+                "Error message should be equal");
+    }
+
+    @Test
+    @DisplayName("JUnit test given allowed update rejected by a concurrent change when update then throw ValidException")
+    void testGivenAllowedUpdateRejectedByConcurrentChangeWhenUpdateThenThrowValidException() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+        final ValidException exception = assertThrows(ValidException.class, () -> service.update(id, dto),
+                "Should throw ValidException when no row was updated");
+        assertEquals(HttpStatus.CONFLICT, exception.getHttpStatus(), "Status should be CONFLICT");
+    }
+
+    @Test
+    @DisplayName("JUnit test given stale expected version when update then throw PatternException")
+    void testGivenStaleExpectedVersionWhenUpdateThenThrowPatternException() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        entity.setVersion(3L);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
 
-        inOrder.verifyNoMoreInteractions();
+        final PatternException exception = assertThrows(PatternException.class, () -> service.update(id, dto, 2L),
+                "Should throw PatternException when the version is stale");
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getHttpStatus(), "Status should be PRECONDITION_FAILED");
+        verify(customRepository).updateIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), 2L);
+    }
+
+    @Test
+    @DisplayName("JUnit test given current expected version when updatePartial then updated Device")
+    void testGivenCurrentExpectedVersionWhenUpdatePartialThenUpdatedDevice() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        when(customRepository.updatePartialIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), 3L))
+                .thenReturn(dto.getState());
+
+        assertDoesNotThrow(() -> service.updatePartial(id, dto, 3L), "Should not throw exception");
+        verify(repository, never()).findById(id);
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when updatePartial with state only then update without loading it")
+    void testGivenDeviceInUseWhenUpdatePartialWithStateOnlyThenUpdateWithoutLoadingIt() {
+        final var dto = DeviceDTO.builder().state(DeviceStateEnum.AVAILABLE).build();
+        when(customRepository.updatePartialIfAllowed(id, null, null, DeviceStateEnum.AVAILABLE, null))
+                .thenReturn(DeviceStateEnum.AVAILABLE);
+
+        assertDoesNotThrow(() -> service.updatePartial(id, dto), "Name and brand left out should be kept");
+        verify(repository, never()).findById(id);
     }
 
     @Test
     @DisplayName("JUnit test given Device ID when delete then delete Device")
     void testGivenDeviceIDWhenDeleteThenDeleteDevice() {
-        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(customRepository.deleteByIdsIfNotInUse(new long[] { id })).thenReturn(new long[] { id });
 
         assertDoesNotThrow(() -> service.delete(id), "Should not throw exception");
+        verify(repository, never()).findById(id);
+        verify(eventPublisher, times(1)).publishEvent(
+                DeviceEventDTO.builder().type(DeviceEventTypeEnum.DELETED).ids(new long[] { id }).build());
     }
 
     @Test
@@ -158,6 +319,7 @@ class DeviceServiceTest {
     void testGivenDeviceIDWhenDeleteWithDeviceInUseThenThrowValidException() {
         entity.setState(DeviceStateEnum.IN_USE);
         when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(customRepository.deleteByIdsIfNotInUse(new long[] { id })).thenReturn(new long[0]);
 
         final ValidException exception = assertThrows(ValidException.class, () -> {
             service.delete(id);
@@ -205,16 +367,25 @@ class DeviceServiceTest {
     @DisplayName("JUnit test given Device ID and DeviceDTO when updatePartial then updated Device")
     void testGivenDeviceIDAndDeviceDTOWhenUpdatePartialThenUpdatedDevice() {
         final var dto = mockDeviceDTO.mockEntity(1);
-        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(customRepository.updatePartialIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), null))
+                .thenReturn(dto.getState());
 
         assertDoesNotThrow(() -> service.updatePartial(id, dto), "Should not throw exception");
-        InOrder inOrder = inOrder(service, mapper, repository);
 
-        inOrder.verify(service).validateBeforeUpdate(entity, dto);
-        inOrder.verify(mapper).updatePartialFromDeviceDTO(dto, entity);
-        inOrder.verify(repository).save(entity);
+        verify(customRepository).updatePartialIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), null);
+        verify(repository, never()).save(any());
+    }
 
-        inOrder.verifyNoMoreInteractions();
+    @Test
+    @DisplayName("JUnit test given device in use and only state when updatePartial rejected then keep name and brand")
+    void testGivenDeviceInUseAndOnlyStateWhenUpdatePartialRejectedThenKeepNameAndBrand() {
+        final var dto = DeviceDTO.builder().state(DeviceStateEnum.AVAILABLE).build();
+        entity.setState(DeviceStateEnum.IN_USE);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+
+        final ValidException exception = assertThrows(ValidException.class, () -> service.updatePartial(id, dto),
+                "Should throw ValidException when no row was updated");
+        assertEquals(1, exception.getErrs().size(), "Only the concurrent modification should be reported");
     }
 
     // void validateDevicesByParam(String param, final List<Device> devices)
@@ -244,9 +415,9 @@ class DeviceServiceTest {
     @DisplayName("JUnit test given DeviceStateEnum when getByState then return list of DeviceListDTO")
     void testGivenDeviceStateEnumWhenGetByStateThenReturnListOfDeviceListDTO() {
         final var state = DeviceStateEnum.AVAILABLE;
-        when(repository.findByState(state)).thenReturn(List.of(entity));
-        when(mapper.toListDTOs(List.of(entity))).thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
-        final var response = service.getByState(state);
+        when(repository.findAllListByState(state, Pageable.unpaged()))
+                .thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
+        final var response = service.getByState(state, Pageable.unpaged());
         verify(service, times(1)).validateDevicesByParam(anyString(), anyList());
         assertNotNull(response, "Response should not be null");
         assertEquals(1, response.size(), "Response size should be 1");
@@ -256,14 +427,214 @@ class DeviceServiceTest {
     @DisplayName("JUnit test given brand when getByBrand then return list of DeviceListDTO")
     void testGivenBrandWhenGetByBrandThenReturnListOfDeviceListDTO() {
         final var brand = "Device Brand 1";
-        when(repository.findByBrand(brand)).thenReturn(List.of(entity));
-        when(mapper.toListDTOs(List.of(entity))).thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
-        final var response = service.getByBrand(brand);
+        when(repository.findAllListByBrand(brand, Pageable.unpaged()))
+                .thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
+        final var response = service.getByBrand(brand, Pageable.unpaged());
         verify(service, times(1)).validateDevicesByParam(anyString(), anyList());
         assertNotNull(response, "Response should not be null");
         assertEquals(1, response.size(), "Response size should be 1");
     }
 
+    @Test
+    @DisplayName("JUnit test given page request when getByBrand then use the cacheable paged query")
+    void testGivenPageRequestWhenGetByBrandThenUseTheCacheablePagedQuery() {
+        final var brand = "Device Brand 1";
+        final var pageable = PageRequest.of(0, 10);
+        when(repository.findListByBrand(brand, pageable)).thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
+        final var response = service.getByBrand(brand, pageable);
+        verify(repository, never()).findAllListByBrand(anyString(), any());
+        assertEquals(1, response.size(), "Response size should be 1");
+    }
+
+    @Test
+    @DisplayName("JUnit test given page larger than the cached size when getByState then bypass the query cache")
+    void testGivenPageLargerThanTheCachedSizeWhenGetByStateThenBypassTheQueryCache() {
+        final var state = DeviceStateEnum.AVAILABLE;
+        final var pageable = PageRequest.of(0, 101);
+        when(repository.findAllListByState(state, pageable)).thenReturn(List.of(mockDeviceListDTO.mockEntity(1)));
+        final var response = service.getByState(state, pageable);
+        verify(repository, never()).findListByState(any(), any());
+        assertEquals(1, response.size(), "Response size should be 1");
+    }
+
+    @Test
+    @DisplayName("JUnit test given DeviceFilterDTO when export then write one JSON line per device")
+    void testGivenDeviceFilterDTOWhenExportThenWriteOneJsonLinePerDevice() throws Exception {
+        final DeviceFilterDTO filter = DeviceFilterDTO.builder().build();
+        final List<DeviceListDTO> dtos = mockDeviceListDTO.mockEntityList(3);
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        when(customRepository.streamByFilter(filter)).thenReturn(dtos.stream());
+
+        service.export(filter, outputStream);
+
+        final String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length, "Lines size should be equal 3");
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(dtos.get(i).getId(), objectMapper.readValue(lines[i], DeviceListDTO.class).getId(),
+                    "ID should be equal " + dtos.get(i).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("JUnit test given duplicated IDs when getByIds then query distinct sorted IDs once")
+    void testGivenDuplicatedIdsWhenGetByIdsThenQueryDistinctSortedIdsOnce() {
+        final List<DeviceListDTO> dtos = mockDeviceListDTO.mockEntityList(2);
+        when(customRepository.findByIds(new long[] { 1L, 2L, 3L })).thenReturn(dtos);
+
+        final List<DeviceListDTO> response = service.getByIds(new long[] { 3L, 1L, 2L, 3L });
+
+        assertEquals(dtos, response, "Response should be the fetched devices");
+        verify(customRepository, times(1)).findByIds(new long[] { 1L, 2L, 3L });
+    }
+
+    @Test
+    @DisplayName("JUnit test given empty or too many IDs when getByIds then throw bad request")
+    void testGivenEmptyOrTooManyIdsWhenGetByIdsThenThrowBadRequest() {
+        final long[] tooMany = new long[10001];
+        for (int i = 0; i < tooMany.length; i++) {
+            tooMany[i] = i + 1L;
+        }
+
+        final ValidException empty = assertThrows(ValidException.class, () -> service.getByIds(new long[0]),
+                "Does Not Throw");
+        final ValidException exceeded = assertThrows(ValidException.class, () -> service.getByIds(tooMany),
+                "Does Not Throw");
+
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getHttpStatus(), "Status should be BAD_REQUEST");
+        assertEquals(HttpStatus.BAD_REQUEST, exceeded.getHttpStatus(), "Status should be BAD_REQUEST");
+        verify(customRepository, never()).findByIds(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs in use or missing when deleteByIds then report them as skipped")
+    void testGivenIdsInUseOrMissingWhenDeleteByIdsThenReportThemAsSkipped() {
+        when(customRepository.deleteByIdsIfNotInUse(new long[] { 1L, 2L, 3L, 4L })).thenReturn(new long[] { 1L, 3L });
+
+        final DeviceBulkResultDTO response = service.deleteByIds(new long[] { 4L, 3L, 2L, 1L });
+
+        assertEquals(2, response.getAffected(), "Affected should be equal 2");
+        assertArrayEquals(new long[] { 2L, 4L }, response.getSkippedIds(), "Skipped IDs should be 2 and 4");
+    }
+
+    @Test
+    @DisplayName("JUnit test given IDs when updateStateByIds then update every existing device")
+    void testGivenIdsWhenUpdateStateByIdsThenUpdateEveryExistingDevice() {
+        when(customRepository.updateStateByIds(new long[] { 1L, 2L }, DeviceStateEnum.INACTIVE))
+                .thenReturn(new long[] { 1L, 2L });
+
+        final DeviceBulkResultDTO response = service.updateStateByIds(new long[] { 2L, 1L }, DeviceStateEnum.INACTIVE);
+
+        assertEquals(2, response.getAffected(), "Affected should be equal 2");
+        assertEquals(0, response.getSkippedIds().length, "No ID should be skipped");
+    }
+
+    @Test
+    @DisplayName("JUnit test given valid DeviceDTO when update then publish an updated event with the new state")
+    void testGivenValidDeviceDTOWhenUpdateThenPublishAnUpdatedEventWithTheNewState() {
+        final var dto = mockDeviceDTO.mockEntity(1);
+        when(customRepository.updateIfAllowed(id, dto.getName(), dto.getBrand(), dto.getState(), null))
+                .thenReturn(dto.getState());
+
+        service.update(id, dto, null);
+
+        final ArgumentCaptor<DeviceEventDTO> captor = ArgumentCaptor.forClass(DeviceEventDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(DeviceEventTypeEnum.UPDATED, captor.getValue().getType(), "Type should be UPDATED");
+        assertArrayEquals(new long[] { id }, captor.getValue().getIds(), "IDs should hold the updated device");
+        assertEquals(dto.getState(), captor.getValue().getState(), "State should be the written one");
+        verify(outboxRepository, times(1)).insertOutbox(captor.getValue());
+    }
+
+    @Test
+    @DisplayName("JUnit test given DeviceDTO without state when updatePartial then publish an updated event with the kept state")
+    void testGivenDeviceDTOWithoutStateWhenUpdatePartialThenPublishAnUpdatedEventWithTheKeptState() {
+        final var dto = DeviceDTO.builder().name("Other Name").build();
+        when(customRepository.updatePartialIfAllowed(id, "Other Name", null, null, null))
+                .thenReturn(DeviceStateEnum.INACTIVE);
+
+        service.updatePartial(id, dto, null);
+
+        final ArgumentCaptor<DeviceEventDTO> captor = ArgumentCaptor.forClass(DeviceEventDTO.class);
+        verify(eventPublisher, times(1)).publishEvent(captor.capture());
+        assertEquals(DeviceStateEnum.INACTIVE, captor.getValue().getState(), "State should be the one the device kept");
+        verify(outboxRepository, times(1)).insertOutbox(captor.getValue());
+    }
+
+    @Test
+    @DisplayName("JUnit test given no existing device when updateStateByIds then publish no event")
+    void testGivenNoExistingDeviceWhenUpdateStateByIdsThenPublishNoEvent() {
+        when(customRepository.updateStateByIds(new long[] { 1L }, DeviceStateEnum.IN_USE)).thenReturn(new long[0]);
+
+        service.updateStateByIds(new long[] { 1L }, DeviceStateEnum.IN_USE);
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(outboxRepository, never()).insertOutbox(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given more changes than size when getChanges then return the cursor of the last one")
+    void testGivenMoreChangesThanSizeWhenGetChangesThenReturnTheCursorOfTheLastOne() {
+        final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6000);
+        final List<DeviceChangeDTO> changes = List.of(
+                DeviceChangeDTO.builder().id(1L).updatedAt(updatedAt).build(),
+                DeviceChangeDTO.builder().id(2L).updatedAt(updatedAt).deleted(true).build(),
+                DeviceChangeDTO.builder().id(3L).updatedAt(updatedAt.plusSeconds(1)).build());
+        when(changeRepository.findChanges(LocalDateTime.MIN, 0L, Duration.ofSeconds(5), 3)).thenReturn(changes);
+
+        final DeviceChangesDTO response = service.getChanges(null, 2);
+
+        assertEquals(changes.subList(0, 2), response.getChanges(), "Only size changes should be returned");
+        assertTrue(response.isHasMore(), "More changes should be reported");
+        final CursorDTO cursor = CursorUtil.decode(response.getNextCursor());
+        assertEquals(2L, cursor.getId(), "Cursor should point to the last change returned");
+        assertEquals(updatedAt.toString(), cursor.getValue(), "Cursor should keep the update time");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cursor without changes when getChanges then return the same cursor")
+    void testGivenCursorWithoutChangesWhenGetChangesThenReturnTheSameCursor() {
+        final LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        final String since = CursorUtil.encode(CursorDTO.builder().property("updatedAt").id(7L)
+                .value(updatedAt.toString()).build());
+        when(changeRepository.findChanges(updatedAt, 7L, Duration.ofSeconds(5), 11)).thenReturn(List.of());
+
+        final DeviceChangesDTO response = service.getChanges(since, 10);
+
+        assertTrue(response.getChanges().isEmpty(), "No change should be returned");
+        assertFalse(response.isHasMore(), "No more changes should be reported");
+        assertEquals(since, response.getNextCursor(), "Cursor should not move");
+    }
+
+    @Test
+    @DisplayName("JUnit test given refreshed stats when getStats then return them")
+    void testGivenRefreshedStatsWhenGetStatsThenReturnThem() {
+        final DeviceStatsDTO stats = DeviceStatsDTO.builder()
+                .counts(List.of(DeviceStateCountDTO.builder().brand("Brand").state(DeviceStateEnum.AVAILABLE)
+                        .devices(3L).build()))
+                .refreshedAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+                .build();
+        when(statsRepository.findStats()).thenReturn(stats);
+
+        assertEquals(stats, service.getStats(), "Stats should be read from the custom repository");
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("JUnit test given keyset cursor or invalid size when getChanges then throw bad request")
+    void testGivenKeysetCursorOrInvalidSizeWhenGetChangesThenThrowBadRequest() {
+        final String keysetCursor = CursorUtil.encode(CursorDTO.builder().property("name").id(7L).value("a").build());
+
+        final ValidException cursor = assertThrows(ValidException.class,
+                () -> service.getChanges(keysetCursor, 10), "Does Not Throw");
+        final ValidException size = assertThrows(ValidException.class, () -> service.getChanges(null, 1001),
+                "Does Not Throw");
+
+        assertEquals(HttpStatus.BAD_REQUEST, cursor.getHttpStatus(), "Status should be BAD_REQUEST");
+        assertEquals(HttpStatus.BAD_REQUEST, size.getHttpStatus(), "Status should be BAD_REQUEST");
+        verify(changeRepository, never()).findChanges(any(), anyLong(), any(), anyInt());
+    }
+
     private static Stream<Arguments> provideParametersValidateBeforeUpdateShouldThrow() {
         final DeviceStateEnum state = DeviceStateEnum.IN_USE;
         final String name = "Device Name";
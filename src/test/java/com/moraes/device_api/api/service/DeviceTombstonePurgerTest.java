@@ -0,0 +1,52 @@
+package com.moraes.device_api.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
+
+class DeviceTombstonePurgerTest {
+
+    private final Duration retention = Duration.ofDays(7);
+
+    private IDeviceChangeRepository changeRepository;
+
+    private DeviceTombstonePurger purger;
+
+    @BeforeEach
+    void setUp() {
+        changeRepository = mock(IDeviceChangeRepository.class);
+        purger = new DeviceTombstonePurger(changeRepository, mock(PlatformTransactionManager.class), retention);
+    }
+
+    @Test
+    @DisplayName("JUnit test given full batches when purge then purge until a batch is not full")
+    void testGivenFullBatchesWhenPurgeThenPurgeUntilABatchIsNotFull() {
+        when(changeRepository.purgeTombstones(retention, DeviceTombstonePurger.BATCH_SIZE))
+                .thenReturn(DeviceTombstonePurger.BATCH_SIZE, 3);
+
+        assertEquals(DeviceTombstonePurger.BATCH_SIZE + 3, purger.purge(), "Every batch should be counted");
+        verify(changeRepository, times(2)).purgeTombstones(retention, DeviceTombstonePurger.BATCH_SIZE);
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing batch when purge then stop and keep the purged count")
+    void testGivenFailingBatchWhenPurgeThenStopAndKeepThePurgedCount() {
+        when(changeRepository.purgeTombstones(any(), anyInt())).thenReturn(DeviceTombstonePurger.BATCH_SIZE)
+                .thenThrow(new IllegalStateException("DB error"));
+
+        assertEquals(DeviceTombstonePurger.BATCH_SIZE, purger.purge(), "Only the committed batch should be counted");
+    }
+}
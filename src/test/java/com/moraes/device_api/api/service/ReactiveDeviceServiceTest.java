@@ -0,0 +1,201 @@
+package com.moraes.device_api.api.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceEventTypeEnum;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IReactiveDeviceRepository;
+import com.moraes.device_api.mock.MockDeviceDTO;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReactiveDeviceServiceTest {
+
+    @InjectMocks
+    private ReactiveDeviceService service;
+
+    @Mock
+    private IReactiveDeviceRepository repository;
+
+    @Mock
+    private TransactionalOperator transaction;
+
+    private MockDeviceDTO mockDeviceDTO;
+    private MockDeviceListDTO mockDeviceListDTO;
+
+    private final Long id = 1l;
+
+    @BeforeEach
+    void setUp() {
+        mockDeviceDTO = new MockDeviceDTO();
+        mockDeviceListDTO = new MockDeviceListDTO();
+        MockitoAnnotations.openMocks(this);
+        when(transaction.transactional(any(Mono.class))).then(invocation -> invocation.getArgument(0));
+        when(repository.insertOutbox(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("JUnit test given DeviceDTO when insert then return Device ID")
+    void testGivenDeviceDTOWhenInsertThenReturnDeviceID() {
+        final DeviceDTO dto = mockDeviceDTO.mockEntity(1);
+        when(repository.insert(dto)).thenReturn(Mono.just(id));
+
+        StepVerifier.create(service.insert(dto)).expectNext(id).verifyComplete();
+        verify(repository, times(1)).insertOutbox(argThat(event -> DeviceEventTypeEnum.CREATED.equals(event.getType())
+                && event.getIds().length == 1 && event.getIds()[0] == id && dto.getState().equals(event.getState())));
+        verify(transaction, times(1)).transactional(any(Mono.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test given unknown Device ID when getDTOById then error with ResourceNotFoundException")
+    void testGivenUnknownDeviceIDWhenGetDTOByIdThenErrorWithResourceNotFoundException() {
+        when(repository.findById(id)).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getDTOById(id)).verifyError(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("JUnit test given allowed update when update then complete without loading the device")
+    void testGivenAllowedUpdateWhenUpdateThenCompleteWithoutLoadingTheDevice() {
+        final DeviceDTO dto = mockDeviceDTO.mockEntity(1);
+        when(repository.updateIfAllowed(id, dto, null)).thenReturn(Mono.just(dto.getState()));
+
+        StepVerifier.create(service.update(id, dto, null)).verifyComplete();
+        verify(repository, never()).findById(anyLong());
+        verify(repository, times(1)).insertOutbox(argThat(event -> DeviceEventTypeEnum.UPDATED.equals(event.getType())
+                && event.getIds()[0] == id));
+    }
+
+    @Test
+    @DisplayName("JUnit test given stale version when update then error with PRECONDITION_FAILED")
+    void testGivenStaleVersionWhenUpdateThenErrorWithPreconditionFailed() {
+        final DeviceDTO dto = mockDeviceDTO.mockEntity(1);
+        final DeviceListDTO existing = mockDeviceListDTO.mockEntity(1);
+        existing.setVersion(3L);
+        when(repository.updateIfAllowed(id, dto, 2L)).thenReturn(Mono.empty());
+        when(repository.findById(id)).thenReturn(Mono.just(existing));
+
+        StepVerifier.create(service.update(id, dto, 2L))
+                .verifyErrorMatches(e -> e instanceof PatternException ex
+                        && HttpStatus.PRECONDITION_FAILED.equals(ex.getHttpStatus()));
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when updatePartial changing brand then error with ValidException")
+    void testGivenDeviceInUseWhenUpdatePartialChangingBrandThenErrorWithValidException() {
+        final DeviceDTO dto = DeviceDTO.builder().brand("Other Brand").build();
+        final DeviceListDTO existing = mockDeviceListDTO.mockEntity(1);
+        existing.setState(DeviceStateEnum.IN_USE);
+        when(repository.updatePartialIfAllowed(id, dto, null)).thenReturn(Mono.empty());
+        when(repository.findById(id)).thenReturn(Mono.just(existing));
+
+        StepVerifier.create(service.updatePartial(id, dto, null))
+                .verifyErrorMatches(e -> e instanceof ValidException ex
+                        && ex.getErrs().equals(List.of("Device brand cannot be changed while in use.")));
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when updatePartial with state only then complete")
+    void testGivenDeviceInUseWhenUpdatePartialWithStateOnlyThenComplete() {
+        final DeviceDTO dto = DeviceDTO.builder().state(DeviceStateEnum.AVAILABLE).build();
+        when(repository.updatePartialIfAllowed(id, dto, null)).thenReturn(Mono.just(DeviceStateEnum.AVAILABLE));
+
+        StepVerifier.create(service.updatePartial(id, dto, null)).verifyComplete();
+        verify(repository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("JUnit test given name only when updatePartial then write the kept state to the outbox")
+    void testGivenNameOnlyWhenUpdatePartialThenWriteTheKeptStateToTheOutbox() {
+        final DeviceDTO dto = DeviceDTO.builder().name("Other Name").build();
+        when(repository.updatePartialIfAllowed(id, dto, null)).thenReturn(Mono.just(DeviceStateEnum.INACTIVE));
+
+        StepVerifier.create(service.updatePartial(id, dto, null)).verifyComplete();
+        verify(repository, times(1)).insertOutbox(argThat(event -> DeviceEventTypeEnum.UPDATED.equals(event.getType())
+                && DeviceStateEnum.INACTIVE.equals(event.getState())));
+    }
+
+    @Test
+    @DisplayName("JUnit test given device in use when delete then error with ValidException")
+    void testGivenDeviceInUseWhenDeleteThenErrorWithValidException() {
+        final DeviceListDTO existing = mockDeviceListDTO.mockEntity(1);
+        existing.setState(DeviceStateEnum.IN_USE);
+        when(repository.deleteIfNotInUse(id)).thenReturn(Mono.just(0L));
+        when(repository.findById(id)).thenReturn(Mono.just(existing));
+
+        StepVerifier.create(service.delete(id))
+                .verifyErrorMatches(e -> e instanceof ValidException ex
+                        && ex.getErrs().contains("Device in use cannot be deleted."));
+        verify(repository, never()).insertOutbox(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given deletable device when delete then write the outbox event in the same transaction")
+    void testGivenDeletableDeviceWhenDeleteThenWriteTheOutboxEventInTheSameTransaction() {
+        when(repository.deleteIfNotInUse(id)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service.delete(id)).verifyComplete();
+        verify(repository, times(1)).insertOutbox(argThat(event -> DeviceEventTypeEnum.DELETED.equals(event.getType())
+                && event.getIds()[0] == id && event.getState() == null));
+        verify(transaction, times(1)).transactional(any(Mono.class));
+    }
+
+    @Test
+    @DisplayName("JUnit test given outbox disabled when delete then write no outbox event")
+    void testGivenOutboxDisabledWhenDeleteThenWriteNoOutboxEvent() {
+        ReflectionTestUtils.setField(service, "outboxEnabled", false);
+        when(repository.deleteIfNotInUse(id)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service.delete(id)).verifyComplete();
+        verify(repository, never()).insertOutbox(any());
+    }
+
+    @Test
+    @DisplayName("JUnit test given DeviceFilterDTO when getAll then stream devices")
+    void testGivenDeviceFilterDTOWhenGetAllThenStreamDevices() {
+        final DeviceFilterDTO filter = DeviceFilterDTO.builder().build();
+        when(repository.findByFilter(any())).thenReturn(Flux.fromIterable(mockDeviceListDTO.mockEntityList(3)));
+
+        StepVerifier.create(service.getAll(filter), 1)
+                .expectNextCount(1)
+                .thenRequest(2)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("JUnit test given brand without devices when getByBrand then error with ResourceNotFoundException")
+    void testGivenBrandWithoutDevicesWhenGetByBrandThenErrorWithResourceNotFoundException() {
+        when(repository.findByBrand("None", Pageable.unpaged())).thenReturn(Flux.empty());
+
+        StepVerifier.create(service.getByBrand("None", Pageable.unpaged())).verifyError(ResourceNotFoundException.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.moraes.device_api.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.moraes.device_api.api.exception.ValidException;
+import com.moraes.device_api.api.model.dto.CursorDTO;
+
+class CursorUtilTest {
+
+    @Test
+    void testEncodeAndDecode() {
+        final CursorDTO cursor = CursorDTO.builder().property("name").id(42L).value("Galaxy | S24").build();
+
+        final CursorDTO response = CursorUtil.decode(CursorUtil.encode(cursor));
+
+        assertEquals(cursor, response, "Decoded cursor should be equal to the encoded one");
+    }
+
+    @Test
+    void testDecodeInvalidCursor() {
+        final ValidException ex = assertThrows(ValidException.class, () -> CursorUtil.decode("not-a-cursor"),
+                "Does Not Throw");
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getHttpStatus(), "Status should be BAD_REQUEST");
+    }
+}
@@ -0,0 +1,53 @@
+package com.moraes.device_api.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+class ETagUtilTest {
+
+    private final MockDeviceListDTO mockDeviceListDTO = new MockDeviceListDTO();
+
+    @Test
+    void testOfDevice() {
+        final DeviceListDTO dto = mockDeviceListDTO.mockEntity(1);
+        dto.setId(7L);
+        dto.setVersion(3L);
+
+        assertEquals("\"7-3\"", ETagUtil.of(dto), "ETag should be built from ID and version");
+    }
+
+    @Test
+    void testOfListChangesWithVersion() {
+        final List<DeviceListDTO> dtos = mockDeviceListDTO.mockEntityList();
+        final String before = ETagUtil.of(dtos, dtos.size());
+
+        assertEquals(before, ETagUtil.of(dtos, dtos.size()), "ETag should be stable");
+        dtos.get(0).setVersion(dtos.get(0).getVersion() + 1);
+        assertNotEquals(before, ETagUtil.of(dtos, dtos.size()), "ETag should change with a version");
+    }
+
+    @Test
+    void testParseVersion() {
+        assertEquals(3L, ETagUtil.parseVersion(7L, "\"7-3\""), "Version should be parsed");
+        assertNull(ETagUtil.parseVersion(7L, null), "Missing header should accept any version");
+        assertNull(ETagUtil.parseVersion(7L, "*"), "Wildcard should accept any version");
+    }
+
+    @Test
+    void testParseVersionOfAnotherDevice() {
+        final PatternException ex = assertThrows(PatternException.class, () -> ETagUtil.parseVersion(7L, "\"8-3\""),
+                "Does Not Throw");
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.getHttpStatus(), "Status should be PRECONDITION_FAILED");
+    }
+}
@@ -0,0 +1,30 @@
+package com.moraes.device_api.api.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IdsUtilTest {
+
+    @Test
+    void testDistinctSorted() {
+        final long[] ids = { 5L, 1L, 5L, 3L, 1L };
+
+        assertArrayEquals(new long[] { 1L, 3L, 5L }, IdsUtil.distinctSorted(ids),
+                "IDs should be sorted without duplicates");
+        assertArrayEquals(new long[] { 5L, 1L, 5L, 3L, 1L }, ids, "Given IDs should not be modified");
+    }
+
+    @Test
+    void testDistinctSortedEmpty() {
+        assertArrayEquals(new long[0], IdsUtil.distinctSorted(new long[0]), "Empty IDs should stay empty");
+    }
+
+    @Test
+    void testDifference() {
+        assertArrayEquals(new long[] { 2L, 4L }, IdsUtil.difference(new long[] { 1L, 2L, 3L, 4L }, new long[] { 1L, 3L }),
+                "Only the excluded IDs should be removed");
+        assertArrayEquals(new long[0], IdsUtil.difference(new long[] { 1L, 2L }, new long[] { 1L, 2L }),
+                "Nothing should remain");
+    }
+}
@@ -0,0 +1,140 @@
+package com.moraes.device_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moraes.device_api.api.mapper.IDeviceMapper;
+import com.moraes.device_api.api.model.Device;
+import com.moraes.device_api.api.model.dto.device.DeviceDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.api.model.enums.DeviceStateEnum;
+import com.moraes.device_api.api.repository.IDeviceChangeRepository;
+import com.moraes.device_api.api.repository.IDeviceCustomRepository;
+import com.moraes.device_api.api.repository.IDeviceOutboxRepository;
+import com.moraes.device_api.api.repository.IDeviceStatsRepository;
+import com.moraes.device_api.api.repository.IDeviceRepository;
+import com.moraes.device_api.api.service.DeviceService;
+import com.moraes.device_api.api.service.interfaces.IDeviceService;
+import com.moraes.device_api.mock.MockDevice;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+
+@SpringJUnitConfig(classes = { CacheConfig.class, DeviceService.class, DeviceMetricsAspect.class,
+        DeviceMetricsAspect.ServiceInvocation.class, CacheConfigTest.MetricsConfig.class })
+class CacheConfigTest {
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private IDeviceService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private IDeviceRepository repository;
+
+    @MockitoBean
+    private IDeviceCustomRepository customRepository;
+
+    @MockitoBean
+    private IDeviceChangeRepository changeRepository;
+
+    @MockitoBean
+    private IDeviceOutboxRepository outboxRepository;
+
+    @MockitoBean
+    private IDeviceStatsRepository statsRepository;
+
+    @MockitoBean
+    private IDeviceMapper mapper;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private Validator validator;
+
+    private final Long id = 1L;
+    private Device entity;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.DEVICES_CACHE).clear();
+        meterRegistry.clear();
+        entity = new MockDevice().mockEntity(1);
+        entity.setId(id);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(mapper.toListDTO(entity)).thenReturn(new MockDeviceListDTO().mockEntity(1));
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached Device ID when getDTOById twice then repository is hit once")
+    void testGivenCachedDeviceIdWhenGetDTOByIdTwiceThenRepositoryIsHitOnce() {
+        final DeviceListDTO first = service.getDTOById(id);
+        final DeviceListDTO second = service.getDTOById(id);
+
+        assertEquals(first, second, "Cached DTO should be equal");
+        verify(repository, times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached Device ID when getDTOById twice then time one miss and one hit")
+    void testGivenCachedDeviceIdWhenGetDTOByIdTwiceThenTimeOneMissAndOneHit() {
+        service.getDTOById(id);
+        service.getDTOById(id);
+
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER).tag(DeviceMetrics.TAG_METHOD, "getDTOById")
+                .tag(DeviceMetrics.TAG_CACHE, DeviceMetrics.CACHE_MISS).timer().count(), "First call should miss");
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER).tag(DeviceMetrics.TAG_METHOD, "getDTOById")
+                .tag(DeviceMetrics.TAG_CACHE, DeviceMetrics.CACHE_HIT).timer().count(), "Second call should hit");
+    }
+
+    @Test
+    @DisplayName("JUnit test given cached Device ID when update then next getDTOById reads repository")
+    void testGivenCachedDeviceIdWhenUpdateThenNextGetDTOByIdReadsRepository() {
+        service.getDTOById(id);
+        when(customRepository.updateIfAllowed(id, "Name", "Brand", null, null))
+                .thenReturn(DeviceStateEnum.AVAILABLE);
+        service.update(id, DeviceDTO.builder().name("Name").brand("Brand").build());
+        reset(repository);
+        when(repository.findById(id)).thenReturn(Optional.of(entity));
+        when(mapper.toListDTO(any())).thenReturn(new MockDeviceListDTO().mockEntity(2));
+
+        service.getDTOById(id);
+
+        verify(repository, times(1)).findById(id);
+    }
+}
@@ -0,0 +1,117 @@
+package com.moraes.device_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpStatus;
+
+import com.moraes.device_api.api.exception.PatternException;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.service.interfaces.IDeviceService;
+
+class DatabaseLimiterAspectTest {
+
+    @Test
+    @DisplayName("JUnit test given free permit when limit then proceed and release permit")
+    void testGivenFreePermitWhenLimitThenProceedAndReleasePermit() throws Throwable {
+        final DatabaseLimiterAspect aspect = new DatabaseLimiterAspect(2, Duration.ofMillis(10));
+        final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertEquals("result", aspect.limit(joinPoint), "Result should be returned");
+        assertEquals(2, aspect.availablePermits(), "Permit should be released");
+    }
+
+    @Test
+    @DisplayName("JUnit test given no permits set when created then leave the reserved connections out of the pool size")
+    void testGivenNoPermitsSetWhenCreatedThenLeaveTheReservedConnectionsOutOfThePoolSize() {
+        assertEquals(6, new DatabaseLimiterAspect(0, 10, 4, Duration.ofMillis(10)).availablePermits(),
+                "Permits should be the pool size less the reserved connections");
+        assertEquals(1, new DatabaseLimiterAspect(0, 2, 4, Duration.ofMillis(10)).availablePermits(),
+                "At least one permit should be left");
+        assertEquals(8, new DatabaseLimiterAspect(8, 10, 4, Duration.ofMillis(10)).availablePermits(),
+                "Permits set explicitly should be kept");
+    }
+
+    @Test
+    @DisplayName("JUnit test given no free permit when limit then throw PatternException with SERVICE_UNAVAILABLE")
+    void testGivenNoFreePermitWhenLimitThenThrowPatternException() throws Throwable {
+        final DatabaseLimiterAspect aspect = new DatabaseLimiterAspect(1, Duration.ofMillis(10));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ProceedingJoinPoint busy = mock(ProceedingJoinPoint.class);
+        when(busy.proceed()).then(invocation -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        final ProceedingJoinPoint waiting = mock(ProceedingJoinPoint.class);
+        when(waiting.getSignature()).thenReturn(mock(Signature.class));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<Object> holder = executor.submit(() -> {
+                try {
+                    return aspect.limit(busy);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            started.await();
+
+            final PatternException exception = assertThrows(PatternException.class, () -> aspect.limit(waiting),
+                    "Should throw PatternException when no permit is free");
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getHttpStatus(),
+                    "Status should be SERVICE_UNAVAILABLE");
+            verify(waiting, never()).proceed();
+
+            release.countDown();
+            holder.get();
+        }
+        assertEquals(1, aspect.availablePermits(), "Permit should be released");
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing call when limit then release permit")
+    void testGivenFailingCallWhenLimitThenReleasePermit() throws Throwable {
+        final DatabaseLimiterAspect aspect = new DatabaseLimiterAspect(1, Duration.ofMillis(10));
+        final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.limit(joinPoint), "Should rethrow the failure");
+        assertEquals(1, aspect.availablePermits(), "Permit should be released");
+    }
+
+    @Test
+    @DisplayName("JUnit test given no free permit when export then proceed without a permit")
+    void testGivenNoFreePermitWhenExportThenProceedWithoutAPermit() throws Throwable {
+        final IDeviceService service = mock(IDeviceService.class);
+        final AspectJProxyFactory factory = new AspectJProxyFactory(service);
+        factory.addAspect(new DatabaseLimiterAspect(0, Duration.ofMillis(10)));
+        final IDeviceService proxy = factory.getProxy();
+        final DeviceFilterDTO filter = DeviceFilterDTO.builder().build();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        proxy.export(filter, outputStream);
+
+        verify(service, times(1)).export(filter, outputStream);
+        assertThrows(PatternException.class, () -> proxy.getDTOById(1L), "Other calls should still be limited");
+        verify(service, never()).getDTOById(1L);
+    }
+}
@@ -0,0 +1,101 @@
+package com.moraes.device_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import com.moraes.device_api.api.exception.ResourceNotFoundException;
+import com.moraes.device_api.api.model.dto.device.DeviceFilterDTO;
+import com.moraes.device_api.api.model.dto.device.DeviceListDTO;
+import com.moraes.device_api.mock.MockDeviceListDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeviceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DeviceMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aspect = new DeviceMetricsAspect(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("JUnit test given filtered call when time then record timer and result size tagged by filter mask")
+    void testGivenFilteredCallWhenTimeThenRecordTimerAndResultSizeTaggedByFilterMask() throws Throwable {
+        final List<DeviceListDTO> dtos = new MockDeviceListDTO().mockEntityList(3);
+        final ProceedingJoinPoint joinPoint = mockJoinPoint("getAll",
+                DeviceFilterDTO.builder().name("Phone").searchText("x").build());
+        when(joinPoint.proceed()).thenReturn(new PageImpl<>(dtos));
+
+        aspect.time(joinPoint);
+
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER).tag(DeviceMetrics.TAG_METHOD, "getAll")
+                .tag(DeviceMetrics.TAG_FILTERS, "10").tag(DeviceMetrics.TAG_EXCEPTION, DeviceMetrics.NONE)
+                .timer().count(), "Call should be timed with mask 10");
+        assertEquals(3.0, meterRegistry.get(DeviceMetrics.SERVICE_RESULTS).tag(DeviceMetrics.TAG_METHOD, "getAll")
+                .summary().totalAmount(), "Result size should be recorded");
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing call when time then record timer with exception and rethrow")
+    void testGivenFailingCallWhenTimeThenRecordTimerWithExceptionAndRethrow() throws Throwable {
+        final ProceedingJoinPoint joinPoint = mockJoinPoint("getDTOById", 1L);
+        when(joinPoint.proceed()).thenThrow(new ResourceNotFoundException("not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> aspect.time(joinPoint), "Should rethrow the failure");
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER).tag(DeviceMetrics.TAG_FILTERS, DeviceMetrics.NONE)
+                .tag(DeviceMetrics.TAG_EXCEPTION, "ResourceNotFoundException").timer().count(),
+                "Failure should be timed");
+        assertEquals(0, meterRegistry.find(DeviceMetrics.SERVICE_RESULTS).summaries().size(),
+                "No result size should be recorded");
+    }
+
+    @Test
+    @DisplayName("JUnit test given call reaching the service when time then tag it as a cache miss")
+    void testGivenCallReachingTheServiceWhenTimeThenTagItAsACacheMiss() throws Throwable {
+        final ProceedingJoinPoint inner = mockJoinPoint("getDTOById", 1L);
+        when(inner.proceed()).thenReturn(new MockDeviceListDTO().mockEntity(1));
+        final ProceedingJoinPoint joinPoint = mockJoinPoint("getDTOById", 1L);
+        when(joinPoint.proceed()).thenAnswer(invocation -> new DeviceMetricsAspect.ServiceInvocation().mark(inner));
+
+        aspect.time(joinPoint);
+
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER)
+                .tag(DeviceMetrics.TAG_CACHE, DeviceMetrics.CACHE_MISS).timer().count(), "Call should be a miss");
+    }
+
+    @Test
+    @DisplayName("JUnit test given call answered before the service when time then tag it as a cache hit")
+    void testGivenCallAnsweredBeforeTheServiceWhenTimeThenTagItAsACacheHit() throws Throwable {
+        final ProceedingJoinPoint joinPoint = mockJoinPoint("getDTOById", 1L);
+        when(joinPoint.proceed()).thenReturn(new MockDeviceListDTO().mockEntity(1));
+
+        aspect.time(joinPoint);
+
+        assertEquals(1, meterRegistry.get(DeviceMetrics.SERVICE_TIMER)
+                .tag(DeviceMetrics.TAG_CACHE, DeviceMetrics.CACHE_HIT).timer().count(), "Call should be a hit");
+    }
+
+    private static ProceedingJoinPoint mockJoinPoint(String method, Object... args) {
+        final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        final Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(method);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(args);
+        return joinPoint;
+    }
+}
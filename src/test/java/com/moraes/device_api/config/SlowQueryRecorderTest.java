@@ -0,0 +1,77 @@
+package com.moraes.device_api.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.moraes.device_api.api.model.dto.SlowQueryDTO;
+
+class SlowQueryRecorderTest {
+
+    @Test
+    @DisplayName("JUnit test given threshold when isSlow then compare the duration with it")
+    void testGivenThresholdWhenIsSlowThenCompareTheDurationWithIt() {
+        final SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ofMillis(100), 10, 0);
+
+        assertFalse(recorder.isSlow(Duration.ofMillis(99).toNanos()), "Faster query should not be slow");
+        assertTrue(recorder.isSlow(Duration.ofMillis(100).toNanos()), "Query at the threshold should be slow");
+        assertFalse(recorder.shouldExplain(), "No plan should be sampled with a rate of 0");
+    }
+
+    @Test
+    @DisplayName("JUnit test given full buffer when record then replace the oldest entry")
+    void testGivenFullBufferWhenRecordThenReplaceTheOldestEntry() {
+        final SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 2, 0);
+
+        for (int i = 1; i <= 3; i++) {
+            recorder.record(SlowQueryDTO.builder().filters(i).build());
+        }
+
+        final List<SlowQueryDTO> entries = recorder.getEntries();
+        assertEquals(List.of(3, 2), entries.stream().map(SlowQueryDTO::getFilters).toList(),
+                "Newest entries should be kept, newest first");
+        assertEquals(3, recorder.getRecorded(), "Every recorded query should be counted");
+
+        recorder.clear();
+        assertTrue(recorder.getEntries().isEmpty(), "Entries should be cleared");
+    }
+
+    @Test
+    @DisplayName("JUnit test given explain thread when recordWithPlan then record the entry once the plan is taken")
+    void testGivenExplainThreadWhenRecordWithPlanThenRecordTheEntryOnceThePlanIsTaken() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 10, 1, tasks::add);
+
+        recorder.recordWithPlan(SlowQueryDTO.builder().filters(1).build(), () -> "Seq Scan on device item");
+
+        assertTrue(recorder.getEntries().isEmpty(), "Entry should wait for its plan");
+        tasks.get(0).run();
+        assertEquals("Seq Scan on device item", recorder.getEntries().get(0).getPlan(), "Plan should be recorded");
+    }
+
+    @Test
+    @DisplayName("JUnit test given failing plan or full queue when recordWithPlan then record the entry without plan")
+    void testGivenFailingPlanOrFullQueueWhenRecordWithPlanThenRecordTheEntryWithoutPlan() {
+        final SlowQueryRecorder recorder = new SlowQueryRecorder(Duration.ZERO, 10, 1, Runnable::run);
+        final SlowQueryRecorder fullRecorder = new SlowQueryRecorder(Duration.ZERO, 10, 1, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        recorder.recordWithPlan(SlowQueryDTO.builder().build(), () -> {
+            throw new IllegalStateException("explain failed");
+        });
+        fullRecorder.recordWithPlan(SlowQueryDTO.builder().build(), () -> "Seq Scan on device item");
+
+        assertNull(recorder.getEntries().get(0).getPlan(), "Failed plan should be missing");
+        assertNull(fullRecorder.getEntries().get(0).getPlan(), "Plan should be skipped when the queue is full");
+    }
+}
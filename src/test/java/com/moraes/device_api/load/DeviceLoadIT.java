@@ -0,0 +1,273 @@
+package com.moraes.device_api.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.moraes.device_api.config.PostgresContainerConfig;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Throughput and latency suite for the device endpoints.
+ * <p>
+ * Boots the whole application against a Postgres container seeded with
+ * {@code loadtest.rows} devices, drives each endpoint with
+ * {@code loadtest.concurrency} concurrent clients and reports p50, p99 and p999
+ * per endpoint. An endpoint fails when a percentile crosses its threshold,
+ * read from {@code loadtest.thresholds.<endpoint>.<percentile>-ms}, then
+ * {@code loadtest.thresholds.<percentile>-ms}.
+ * <p>
+ * Runs with {@code mvn -Pload-test verify}; the report is written to
+ * {@code target/load-test/report.csv}.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@Import(PostgresContainerConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DeviceLoadIT {
+
+    private static final String BASE_PATH = "/api/v1/devices";
+    private static final String[] BRANDS = { "Samsung", "Apple", "Lenovo", "Google", "Microsoft", "Dell" };
+    private static final String[] STATES = { "AVAILABLE", "IN_USE", "INACTIVE" };
+    private static final double[] PERCENTILES = { 50, 99, 99.9 };
+    private static final String[] PERCENTILE_NAMES = { "p50", "p99", "p999" };
+    private static final Map<String, Double> DEFAULT_THRESHOLDS_MS = Map.of("p50", 50.0, "p99", 250.0, "p999",
+            1000.0);
+
+    private final int rows = Integer.getInteger("loadtest.rows", 2_000_000);
+    private final int requests = Integer.getInteger("loadtest.requests", 5_000);
+    private final int warmup = Integer.getInteger("loadtest.warmup", 500);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+
+    private final HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Map<String, LatencyRecorder> results = new LinkedHashMap<>();
+    private final List<Long> insertedIds = new ArrayList<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private long maxSeededId;
+
+    @BeforeAll
+    void seed() throws IOException, SQLException {
+        final String script = new ClassPathResource("load/seed_devices_postgresql.sql")
+                .getContentAsString(StandardCharsets.UTF_8)
+                .replace(":rows", Integer.toString(rows));
+        final long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)));
+        }
+        maxSeededId = rows;
+        log.info("Seeded {} devices in {} ms", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Load test insert")
+    void testInsert() {
+        final Queue<Long> ids = new ConcurrentLinkedQueue<>();
+        assertWithinThresholds(run("insert", i -> request("")
+                .header("Content-Type", "application/json")
+                .POST(BodyPublishers.ofString("{\"name\":\"Load %d\",\"brand\":\"Load Brand\",\"state\":\"AVAILABLE\"}"
+                        .formatted(i)))
+                .build(), 201, response -> ids.add(Long.valueOf(response.body().trim()))));
+        insertedIds.addAll(ids);
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Load test get by ID")
+    void testGetById() {
+        assertWithinThresholds(run("get-by-id",
+                i -> request("/" + ThreadLocalRandom.current().nextLong(1, maxSeededId + 1)).GET().build(), 200,
+                response -> {
+                }));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Load test filtered list")
+    void testFilteredList() {
+        assertWithinThresholds(run("list", i -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            return request("?brand=%s&state=%s&page=%d&size=20".formatted(BRANDS[random.nextInt(BRANDS.length)],
+                    STATES[random.nextInt(STATES.length)], random.nextInt(50))).GET().build();
+        }, 200, response -> {
+        }));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Load test patch")
+    void testPatch() {
+        assertWithinThresholds(run("patch", i -> request("/" + insertedIds.get(i))
+                .header("Content-Type", "application/json")
+                .method("PATCH", BodyPublishers.ofString("{\"state\":\"INACTIVE\"}"))
+                .build(), 204, response -> {
+                }));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Load test delete")
+    void testDelete() {
+        assertWithinThresholds(run("delete", i -> request("/" + insertedIds.get(i)).DELETE().build(), 204,
+                response -> {
+                }));
+    }
+
+    @AfterAll
+    void report() throws IOException {
+        final StringBuilder csv = new StringBuilder("endpoint,requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms\n");
+        for (LatencyRecorder recorder : results.values()) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f%n", recorder.getEndpoint(),
+                    recorder.getCount(), recorder.getErrors(), recorder.throughput(),
+                    recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(99.9)));
+        }
+        final Path report = Path.of("target", "load-test", "report.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, csv);
+        log.info("Load test report ({} rows, {} clients):\n{}", rows, concurrency, csv);
+    }
+
+    /**
+     * Sends warmup plus measured requests to an endpoint from
+     * {@code loadtest.concurrency} concurrent clients, recording only the
+     * measured ones.
+     * <p>
+     * The request factory receives a sequence number, unique across warmup and
+     * measured requests. A request the factory cannot build, such as a patch
+     * past the ids the insert run returned, counts as an error.
+     */
+    private LatencyRecorder run(String endpoint, IntFunction<HttpRequest> requestFactory, int expectedStatus,
+            Consumer<HttpResponse<String>> onSuccess) {
+        final LatencyRecorder warmupRecorder = new LatencyRecorder(endpoint, warmup);
+        execute(warmupRecorder, 0, warmup, requestFactory, expectedStatus, onSuccess);
+        final LatencyRecorder recorder = new LatencyRecorder(endpoint, requests);
+        execute(recorder, warmup, requests, requestFactory, expectedStatus, onSuccess);
+        results.put(endpoint, recorder);
+        return recorder;
+    }
+
+    private void execute(LatencyRecorder recorder, int offset, int amount, IntFunction<HttpRequest> requestFactory,
+            int expectedStatus, Consumer<HttpResponse<String>> onSuccess) {
+        final long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = offset; i < offset + amount; i++) {
+                final int sequence = i;
+                executor.execute(() -> {
+                    final HttpRequest request;
+                    try {
+                        request = requestFactory.apply(sequence);
+                    } catch (RuntimeException e) {
+                        recorder.error();
+                        log.debug("Request {} to {} could not be built", sequence, recorder.getEndpoint(), e);
+                        return;
+                    }
+                    send(recorder, request, expectedStatus, onSuccess);
+                });
+            }
+        }
+        recorder.finish(System.nanoTime() - start);
+    }
+
+    private void send(LatencyRecorder recorder, HttpRequest request, int expectedStatus,
+            Consumer<HttpResponse<String>> onSuccess) {
+        try {
+            final long start = System.nanoTime();
+            final HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+            final long elapsed = System.nanoTime() - start;
+            if (response.statusCode() == expectedStatus) {
+                recorder.record(elapsed);
+                onSuccess.accept(response);
+            } else {
+                recorder.error();
+                log.debug("{} {} answered {}", request.method(), request.uri(), response.statusCode());
+            }
+        } catch (IOException e) {
+            recorder.error();
+            log.debug("{} {} failed", request.method(), request.uri(), e);
+        } catch (InterruptedException e) {
+            recorder.error();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + path));
+    }
+
+    private static void assertWithinThresholds(LatencyRecorder recorder) {
+        final List<String> violations = new ArrayList<>();
+        if (recorder.getErrors() > 0) {
+            violations.add(recorder.getErrors() + " requests failed");
+        }
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            final double threshold = threshold(recorder.getEndpoint(), PERCENTILE_NAMES[i]);
+            final double value = recorder.percentileMillis(PERCENTILES[i]);
+            if (value > threshold) {
+                violations.add(String.format(Locale.ROOT, "%s %.3f ms > %.3f ms", PERCENTILE_NAMES[i], value,
+                        threshold));
+            }
+        }
+        assertTrue(violations.isEmpty(), recorder.getEndpoint() + ": " + violations);
+    }
+
+    private static double threshold(String endpoint, String percentile) {
+        final String fallback = System.getProperty("loadtest.thresholds." + percentile + "-ms",
+                String.valueOf(DEFAULT_THRESHOLDS_MS.get(percentile)));
+        return Double.parseDouble(
+                System.getProperty("loadtest.thresholds." + endpoint + "." + percentile + "-ms", fallback));
+    }
+}
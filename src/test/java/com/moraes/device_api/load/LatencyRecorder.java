@@ -0,0 +1,73 @@
+package com.moraes.device_api.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+
+/**
+ * Records request latencies of one endpoint and reports their percentiles.
+ * <p>
+ * Samples are kept raw, so percentiles are exact instead of bucketed.
+ */
+class LatencyRecorder {
+
+    @Getter
+    private final String endpoint;
+
+    private final long[] samples;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final AtomicInteger errors = new AtomicInteger();
+
+    @Getter
+    private long elapsedNanos;
+
+    private long[] sorted;
+
+    LatencyRecorder(String endpoint, int capacity) {
+        this.endpoint = endpoint;
+        this.samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+        samples[count.getAndIncrement()] = nanos;
+    }
+
+    void error() {
+        errors.incrementAndGet();
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+        this.sorted = Arrays.copyOf(samples, count.get());
+        Arrays.sort(sorted);
+    }
+
+    int getCount() {
+        return count.get();
+    }
+
+    int getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * Returns the latency at the given percentile, in milliseconds.
+     * 
+     * @param percentile the percentile, between 0 and 100
+     * @return the latency in milliseconds, or 0 if nothing was recorded
+     */
+    double percentileMillis(double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+
+    double throughput() {
+        return elapsedNanos == 0 ? 0 : (count.get() + errors.get()) * 1_000_000_000.0 / elapsedNanos;
+    }
+}
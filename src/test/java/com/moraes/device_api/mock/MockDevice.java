@@ -6,6 +6,14 @@ import com.moraes.device_api.mock.interfaces.AbstractMock;
 
 public class MockDevice extends AbstractMock<Device> {
 
+    public MockDevice() {
+        super();
+        ignoreFields.add("ID_SEQUENCE");
+        ignoreFields.add("ID_ALLOCATION_SIZE");
+        ignoreFields.add("CACHE_REGION");
+        ignoreFields.add("QUERY_CACHE_REGION");
+    }
+
     @Override
     protected Class<Device> getClazz() {
         return Device.class;
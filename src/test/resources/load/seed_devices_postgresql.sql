@@ -0,0 +1,28 @@
+-- Extends V01_01_02__populate_device_postgresql.sql to :rows devices for the load test,
+-- cycling through its sample names and brands and spreading states and creation times
+WITH sample (n, name, brand) AS (
+    VALUES
+        (0, 'Galaxy S24', 'Samsung'),
+        (1, 'iPhone 15', 'Apple'),
+        (2, 'ThinkPad X1', 'Lenovo'),
+        (3, 'MacBook Pro', 'Apple'),
+        (4, 'Pixel 8', 'Google'),
+        (5, 'Surface Pro 9', 'Microsoft'),
+        (6, 'Inspiron 15', 'Dell'),
+        (7, 'Galaxy Tab S9', 'Samsung'),
+        (8, 'IdeaPad 5', 'Lenovo'),
+        (9, 'iPad Air', 'Apple')
+)
+INSERT INTO device_api.device (id, name, brand, state, creation_time)
+SELECT base.max_id + g,
+    sample.name || ' #' || g,
+    sample.brand,
+    (ARRAY['AVAILABLE', 'IN_USE', 'INACTIVE'])[1 + g % 3],
+    TIMESTAMP '2024-01-01 00:00:00' + g * INTERVAL '1 second'
+FROM generate_series(1, :rows) AS g
+CROSS JOIN (SELECT COALESCE(MAX(id), 0) AS max_id FROM device_api.device) AS base
+JOIN sample ON sample.n = g % 10;
+
+SELECT setval('device_api.device_id_seq', (SELECT MAX(id) + 1 FROM device_api.device));
+
+ANALYZE device_api.device;